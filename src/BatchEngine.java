@@ -0,0 +1,257 @@
+/**
+ * Plays thousands of computer-vs-computer games side by side. State is kept as a structure of arrays, one flat
+ * primitive array per field, and hands are CardBits masks, so a pass over all games walks memory in order and never
+ * touches a Card or an ArrayList. Each game is seeded and plays out exactly as Simulation.play() would.
+ */
+public class BatchEngine {
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private final int games;
+    private final long[] seeds;
+
+    /**
+     * java.util.Random state for each game
+     */
+    private final long[] rand;
+
+    /**
+     * Two hands per game; [2 * game] is Player, [2 * game + 1] is Player1
+     */
+    private final long[] hands;
+
+    /**
+     * 52 card indices per game; the cards left to draw run from deckTop up to the end of the game's slice
+     */
+    private final byte[] decks;
+    private final int[] deckTop;
+
+    private final byte[] topCard;
+    private final byte[] newSuit;
+    private final byte[] nextUp;
+    private final byte[] firstPlayer;
+    private final byte[] status;
+    private final int[] turns;
+    private final int[] draws;
+
+    private int live;
+
+    /**
+     * Class constructor; shuffles, deals and turns over the up card for every game
+     *
+     * @param seeds One seed per game
+     */
+    public BatchEngine(long[] seeds) {
+        this.games = seeds.length;
+        this.seeds = seeds.clone();
+        this.rand = new long[games];
+        this.hands = new long[2 * games];
+        this.decks = new byte[CardBits.DECK_SIZE * games];
+        this.deckTop = new int[games];
+        this.topCard = new byte[games];
+        this.newSuit = new byte[games];
+        this.nextUp = new byte[games];
+        this.firstPlayer = new byte[games];
+        this.status = new byte[games];
+        this.turns = new int[games];
+        this.draws = new int[games];
+        this.live = games;
+
+        for (int g = 0; g < games; g++) {
+            deal(g);
+        }
+    }
+
+    /**
+     * Advances every game that is still going by one turn
+     *
+     * @return Number of games still going afterwards
+     */
+    public int step() {
+        final int continueStatus = Game.Status.CONTINUE.ordinal();
+
+        for (int g = 0; g < games; g++) {
+            if (status[g] == continueStatus) {
+                turn(g);
+            }
+        }
+
+        return live;
+    }
+
+    /**
+     * Steps until every game is over
+     */
+    public void run() {
+        while (step() > 0);
+    }
+
+    private void turn(int g) {
+        int player = nextUp[g];
+        int base = g * CardBits.DECK_SIZE;
+        long hand = hands[2 * g + player];
+        long playable = CardBits.playable(topCard[g], newSuit[g]);
+        boolean skipped = false;
+
+        // If you cannot play a card, you have to take one from the top
+        while ((hand & playable) == 0) {
+            if (deckTop[g] < CardBits.DECK_SIZE) {
+                hand |= 1L << decks[base + deckTop[g]++];
+                draws[g]++;
+            }
+            else {
+                skipped = true;
+                break;
+            }
+        }
+
+        if (!skipped) {
+            int card = CardBits.computerChoice(hand & playable);
+            hand &= ~(1L << card);
+            topCard[g] = (byte) card;
+            newSuit[g] = (byte) ((CardBits.rank(card) == CardBits.EIGHT && hand != 0)
+                    ? CardBits.computerSuit(hand)
+                    : -1);
+        }
+
+        hands[2 * g + player] = hand;
+        turns[g]++;
+
+        // See if there is a winner
+        Game.Status gameStatus = Game.Status.CONTINUE;
+        if (hands[2 * g] == 0) {
+            gameStatus = Game.Status.WON;
+        }
+        else if (hands[2 * g + 1] == 0) {
+            gameStatus = Game.Status.LOST;
+        }
+        else if (deckTop[g] == CardBits.DECK_SIZE) {
+            gameStatus = CardBits.determineWinner(hands[2 * g], hands[2 * g + 1]);
+        }
+        else {
+            nextUp[g] = (byte) (player ^ 1);
+        }
+
+        if (gameStatus != Game.Status.CONTINUE) {
+            status[g] = (byte) gameStatus.ordinal();
+            live--;
+        }
+    }
+
+    /**
+     * Mirrors Card.createDeck(), Rules.randomPlayer(), the deal and Simulation.drawUpCard() draw for draw
+     */
+    private void deal(int g) {
+        int base = g * CardBits.DECK_SIZE;
+        rand[g] = (seeds[g] ^ MULTIPLIER) & MASK;
+
+        // Collections.shuffle() on an unshuffled deck
+        for (int c = 0; c < CardBits.DECK_SIZE; c++) {
+            decks[base + c] = (byte) c;
+        }
+        for (int i = CardBits.DECK_SIZE; i > 1; i--) {
+            int j = nextInt(g, i);
+            byte swap = decks[base + i - 1];
+            decks[base + i - 1] = decks[base + j];
+            decks[base + j] = swap;
+        }
+
+        // Collections.shuffle() on [Player, Player1] leaves Player first only if the swap is a no-op
+        int first = (nextInt(g, 2) == 1) ? 0 : 1;
+        firstPlayer[g] = (byte) first;
+
+        for (int c = 0; c < Rules.CARDS_TO_DEAL; c++) {
+            hands[2 * g + first] |= 1L << decks[base + deckTop[g]++];
+            hands[2 * g + (first ^ 1)] |= 1L << decks[base + deckTop[g]++];
+        }
+
+        // Up card cannot be an "8". Put it back in the deck somewhere.
+        int card;
+        do {
+            card = decks[base + deckTop[g]++];
+
+            if (CardBits.rank(card) == CardBits.EIGHT) {
+                int remaining = CardBits.DECK_SIZE - deckTop[g];
+                int at = deckTop[g] + nextInt(g, remaining);
+
+                // Shift the cards ahead of the insertion point forward by one slot
+                System.arraycopy(decks, base + deckTop[g], decks, base + deckTop[g] - 1, at - deckTop[g]);
+                deckTop[g]--;
+                decks[base + at - 1] = (byte) card;
+            }
+        }
+        while (CardBits.rank(card) == CardBits.EIGHT);
+
+        topCard[g] = (byte) card;
+        newSuit[g] = -1;
+        nextUp[g] = (byte) (first ^ 1);
+        status[g] = (byte) Game.Status.CONTINUE.ordinal();
+    }
+
+    /**
+     * java.util.Random.nextInt(bound) against this game's state
+     */
+    private int nextInt(int g, int bound) {
+        int r = next(g);
+        int m = bound - 1;
+
+        if ((bound & m) == 0) {
+            return (int) ((bound * (long) r) >> 31);
+        }
+
+        for (int u = r; u - (r = u % bound) + m < 0; u = next(g));
+
+        return r;
+    }
+
+    private int next(int g) {
+        rand[g] = (rand[g] * MULTIPLIER + ADDEND) & MASK;
+        return (int) (rand[g] >>> (48 - 31));
+    }
+
+    public int size() {
+        return this.games;
+    }
+
+    /**
+     * @param g Game number
+     * @return How game g went; its status is CONTINUE until it is over
+     */
+    public GameResult result(int g) {
+        return new GameResult(seeds[g], Rules.RULE_SET, firstPlayer[g], turns[g], draws[g],
+                CardBits.points(hands[2 * g]), CardBits.points(hands[2 * g + 1]), Game.Status.values()[status[g]]);
+    }
+
+    /**
+     * Plays a batch, checks a sample against Simulation.play() and reports the throughput
+     *
+     * > java BatchEngine [games] [first seed]
+     */
+    public static void main(String[] args) {
+        int games = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+        long firstSeed = (args.length > 1) ? Long.parseLong(args[1]) : 0;
+
+        long[] seeds = new long[games];
+        for (int g = 0; g < games; g++) {
+            seeds[g] = firstSeed + g;
+        }
+
+        long start = System.nanoTime();
+        BatchEngine engine = new BatchEngine(seeds);
+        engine.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int mismatches = 0;
+        for (int g = 0; g < games; g += Math.max(1, games / 10_000)) {
+            if (!engine.result(g).equals(Simulation.play(seeds[g]))) {
+                System.out.println("Mismatch: " + engine.result(g) + " vs " + Simulation.play(seeds[g]));
+                mismatches++;
+            }
+        }
+
+        System.out.printf("%d games in %.3f s (%.0f games/s), %d mismatches%n", games, seconds, games / seconds,
+                mismatches);
+    }
+}
@@ -1,5 +1,6 @@
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Random;
 
 public class Card {
 
@@ -70,6 +71,16 @@ public class Card {
      * @return ArrayList of 52 Cards
      */
     public static ArrayList<Card> createDeck() {
+        return createDeck(new Random());
+    }
+
+    /**
+     * Create and return an ArrayList of Cards shuffled by the given source of randomness
+     *
+     * @param rand Random used for the shuffle; the same seed always yields the same deck
+     * @return ArrayList of 52 Cards
+     */
+    public static ArrayList<Card> createDeck(Random rand) {
 
         int deckSize = CARD_RANKS.length * CARD_TYPES.length * Rules.NUMBER_OF_DECKS;
         ArrayList<Card> deck = new ArrayList<>(deckSize);
@@ -79,7 +90,7 @@ public class Card {
         }
 
         // Shuffle and return
-        Collections.shuffle(deck);
+        Collections.shuffle(deck, rand);
 
         return deck;
     }
@@ -97,4 +108,29 @@ public class Card {
      * @return Card's suit
      */
     public String getType() { return this.type; }
+
+    /**
+     * Returns the card's position in an unshuffled deck; suit-major in CARD_TYPES order, then CARD_RANKS order
+     *
+     * @return Index from 0 to 51
+     */
+    public int getIndex() {
+        int suit = 0;
+        while (!CARD_TYPES[suit].equals(this.type)) suit++;
+
+        int rank = 0;
+        while (!CARD_RANKS[rank].equals(this.value)) rank++;
+
+        return suit * CARD_RANKS.length + rank;
+    }
+
+    /**
+     * Creates the card found at the given position of an unshuffled deck
+     *
+     * @param index 0 to 51, as returned by getIndex()
+     * @return A new Card
+     */
+    public static Card fromIndex(int index) {
+        return new Card(CARD_TYPES[index / CARD_RANKS.length], CARD_RANKS[index % CARD_RANKS.length]);
+    }
 }
@@ -0,0 +1,184 @@
+/**
+ * Cards as bits of a long. Bit i is the card Card.fromIndex(i), so a whole hand fits in one word and a legality
+ * check against the top card is a single AND.
+ */
+public final class CardBits {
+
+    public static final int RANKS = Card.CARD_RANKS.length;
+    public static final int SUITS = Card.CARD_TYPES.length;
+    public static final int DECK_SIZE = RANKS * SUITS;
+
+    /**
+     * Rank index of the "8" in CARD_RANKS
+     */
+    public static final int EIGHT = 6;
+
+    /**
+     * Every card of one suit
+     */
+    public static final long[] SUIT_MASKS = new long[SUITS];
+
+    /**
+     * Every card of one rank
+     */
+    public static final long[] RANK_MASKS = new long[RANKS];
+
+    /**
+     * All four "8"s
+     */
+    public static final long EIGHTS;
+
+    /**
+     * The point value of each rank index, as scored by Rules.cardPoints()
+     */
+    public static final int[] RANK_POINTS = new int[RANKS];
+
+    static {
+        for (int s = 0; s < SUITS; s++) {
+            SUIT_MASKS[s] = ((1L << RANKS) - 1) << (s * RANKS);
+        }
+
+        for (int r = 0; r < RANKS; r++) {
+            long mask = 0;
+            for (int s = 0; s < SUITS; s++) mask |= 1L << (s * RANKS + r);
+            RANK_MASKS[r] = mask;
+
+            RANK_POINTS[r] = Rules.cardPoints(Card.fromIndex(r));
+        }
+
+        EIGHTS = RANK_MASKS[EIGHT];
+    }
+
+    private CardBits() {}
+
+    public static int suit(int card) { return card / RANKS; }
+
+    public static int rank(int card) { return card % RANKS; }
+
+    /**
+     * Every card that may be laid down on the top card; the bitwise twin of Rules.checkForValidPlay()
+     *
+     * @param topCard Index of the up card
+     * @param newSuit Suit index declared with an "8", or -1 if none
+     * @return Mask of the playable cards
+     */
+    public static long playable(int topCard, int newSuit) {
+        return (newSuit >= 0)
+                ? EIGHTS | SUIT_MASKS[newSuit]
+                : EIGHTS | SUIT_MASKS[suit(topCard)] | RANK_MASKS[rank(topCard)];
+    }
+
+    /**
+     * Bitwise twin of Player.computerAi(): hold "8"s as long as possible, otherwise discard the highest point value,
+     * lowest index first on a tie
+     *
+     * @param legal Mask of the cards that may be played; must not be 0
+     * @return Index of the card to play
+     */
+    public static int computerChoice(long legal) {
+        long others = legal & ~EIGHTS;
+
+        if (others == 0) {
+            return Long.numberOfTrailingZeros(legal);
+        }
+
+        int best = -1;
+        int bestPoints = -1;
+
+        for (long rest = others; rest != 0; rest &= rest - 1) {
+            int card = Long.numberOfTrailingZeros(rest);
+            int points = RANK_POINTS[rank(card)];
+
+            if (points > bestPoints) {
+                best = card;
+                bestPoints = points;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Bitwise twin of Player.computerSelectNewSuit()
+     *
+     * @param hand Cards left after the "8" was played
+     * @return Suit index held the most, first in CARD_TYPES on a tie
+     */
+    public static int computerSuit(long hand) {
+        int suit = 0;
+        int most = Long.bitCount(hand & SUIT_MASKS[0]);
+
+        for (int s = 1; s < SUITS; s++) {
+            int count = Long.bitCount(hand & SUIT_MASKS[s]);
+            if (count > most) {
+                suit = s;
+                most = count;
+            }
+        }
+
+        return suit;
+    }
+
+    /**
+     * @param hand Cards on hand
+     * @return Sum of the point values, as Rules.handPoints() would score them
+     */
+    public static int points(long hand) {
+        int points = 0;
+
+        for (long rest = hand; rest != 0; rest &= rest - 1) {
+            points += RANK_POINTS[rank(Long.numberOfTrailingZeros(rest))];
+        }
+
+        return points;
+    }
+
+    /**
+     * Renames the suits of a card
+     *
+     * @param card Card index
+     * @param suitMap suitMap[s] is the suit index that suit s becomes
+     * @return Index of the renamed card
+     */
+    public static int relabel(int card, int[] suitMap) {
+        return suitMap[suit(card)] * RANKS + rank(card);
+    }
+
+    /**
+     * Renames the suits of every card in a mask; each suit's 13 bits move as a block
+     *
+     * @param cards Mask of cards
+     * @param suitMap suitMap[s] is the suit index that suit s becomes
+     * @return Mask of the renamed cards
+     */
+    public static long relabel(long cards, int[] suitMap) {
+        long renamed = 0;
+
+        for (int s = 0; s < SUITS; s++) {
+            renamed |= ((cards >>> (s * RANKS)) & ((1L << RANKS) - 1)) << (suitMap[s] * RANKS);
+        }
+
+        return renamed;
+    }
+
+    /**
+     * Bitwise twin of Rules.determineWinner(); the lower total wins
+     *
+     * @param playerHand Player's remaining cards
+     * @param player1Hand Player1's remaining cards
+     * @return The game status (how it ended)
+     */
+    public static Game.Status determineWinner(long playerHand, long player1Hand) {
+        int playerPoints = points(playerHand);
+        int player1Points = points(player1Hand);
+
+        if (playerPoints < player1Points) {
+            return Game.Status.WON;
+        }
+        else if (playerPoints > player1Points) {
+            return Game.Status.LOST;
+        }
+
+        return Game.Status.TIE;
+    }
+}
@@ -1,4 +1,3 @@
-import java.util.ArrayList;
 import java.util.Scanner;
 import java.util.Random;
 import java.util.InputMismatchException;
@@ -10,19 +9,17 @@ public class Game {
      */
     public enum Status {CONTINUE, WON, LOST, TIE}
 
+    /**
+     * Every turn of the console game is published here for spectators; the game never waits on them
+     */
+    public static final TurnEventBus EVENTS = new TurnEventBus(1024);
+
     public static void main(String[] args) {
 
         // Create two players; one computer and one human
         Player you = new Player("player");
         Player player1 = new Player("player1");
-
-        // Create a deck of 52 unique, shuffled cards
-        ArrayList<Card> deck = Card.createDeck();
-
-        // Initialize the game status
-        Status gameStatus = Status.CONTINUE;
-        String reasonGameOver = "";
-        String newSuit = ""; // When an "8" is played
+        Player[] players = {you, player1};
 
         // Create Scanner to obtain inputs
         Scanner input = new Scanner(System.in);
@@ -36,267 +33,193 @@ public class Game {
             e.printStackTrace();
         }
 
-        // Randomly select who goes first- Player or Computer
-        Player firstCardPlayer = Rules.randomPlayer(you, player1);
-        Player secondCardPlayer = (firstCardPlayer == you) ? player1 : you;
-
-        // Deal cards
-        for (int c = 0; c < Rules.CARDS_TO_DEAL; c++) {
-            firstCardPlayer.takeCardFromTopOfDeck(deck);
-            secondCardPlayer.takeCardFromTopOfDeck(deck);
-        }
-
-        System.out.println(you + " and " + player1 + " were dealt " + Rules.CARDS_TO_DEAL + " cards each.");
-
-        // Initialize the up card
-        String topCardFaceValue;
-        Card topCard;
+        // Play one hand, or a match of hands to the target score given on the command line
+        Match match = (args.length > 0) ? new Match(Integer.parseInt(args[0])) : null;
 
         do {
-            topCard = deck.get(0);
-            deck.remove(0);
+            GameState end = playHand(input, players);
 
-            topCardFaceValue = topCard.getValue();
+            // Explain what happened. The hand is over.
+            System.out.println(reasonGameOver(end));
 
-            // Up card cannot be an "8". Throw it back in the deck somewhere.
-            if (topCardFaceValue.equals("8")) {
-
-                // Randomly place somewhere back in the deck
-                Random rand = new Random();
-                deck.add(rand.nextInt(deck.size()), topCard);
+            if (match != null) {
+                match.record(end.toResult());
+                System.out.println(match + "\n");
             }
         }
-        while (topCardFaceValue.equals("8"));
+        while (match != null && !match.isOver());
 
-        // Randomly select who goes first- Player or Computer
-        Player nextUp = secondCardPlayer;
+        if (match != null) {
+            System.out.println((match.getStatus() == Status.WON)
+                    ? "Player wins the match!"
+                    : "Computer wins the match!");
+        }
+    }
 
-        System.out.println("Up card to start: " + topCard);
-        System.out.println(nextUp + " goes first!\n");
+    /**
+     * Plays one hand at the console, with undo and redo
+     *
+     * @param input Where the players' decisions come from
+     * @param players Player and Player1
+     * @return The state the hand ended in
+     */
+    private static GameState playHand(Scanner input, Player[] players) {
+        Player you = players[0];
+        Player player1 = players[1];
 
-        while (gameStatus == Status.CONTINUE) {
+        // Shuffle a deck of 52 unique cards, randomly select who goes first, deal and turn over the up card
+        GameHistory history = new GameHistory(GameState.deal(new Random().nextLong()));
 
-            if (nextUp == you) {
-                boolean needALineBreak = false;
+        System.out.println(you + " and " + player1 + " were dealt " + Rules.CARDS_TO_DEAL + " cards each.");
+        System.out.println("Up card to start: " + Card.fromIndex(history.current().getTopCard()));
+        System.out.println(players[history.current().getNextUp()] + " goes first!\n");
+        System.out.println("Enter \"u\" at any decision to undo the last turn, or \"r\" to redo it.\n");
+
+        while (history.current().getStatus() == Status.CONTINUE) {
+            GameState state = history.current();
+            Player nextUp = players[state.getNextUp()];
+            String decision = (nextUp == you) ? "\nYour's decision: " : "\nPlayer's 1 decision: ";
+            boolean needALineBreak = false; // For formatting in the terminal
+
+            // If you cannot play a card, you have to take one from the top
+            while (!state.canPlay()) {
+                needALineBreak = true;
+
+                if (state.cardsLeft() != 0) {
+                    System.out.println("No cards to play. Player draws a: " + Card.fromIndex(state.getTopOfDeck()));
+                    GameState after = state.draw();
+                    EVENTS.publish(state, GameState.DRAW, after);
+                    state = after;
+                }
+                else {
+                    System.out.println("No cards to play. No cards to draw from deck. Skipping " + nextUp + "'s turn.");
+                    GameState after = state.skip();
+                    EVENTS.publish(state, GameState.SKIP, after);
+                    state = after;
+                    break;
+                }
+            }
 
-                // Reset every turn; reserved for scenarios where there are no cards to draw and no cards to play
-                //you.setSkipStatus(false);
+            // For formatting in the terminal
+            if (needALineBreak) System.out.println();
 
-                // If you cannot play a card, you have to take one from the top
-                while (!you.canPlayCardThisTopCard(newSuit, topCard)) {
-                    needALineBreak = true;
+            if (state.getTurns() != history.current().getTurns()) {
+                history.push(state);
+                continue;
+            }
 
-                    if (deck.size() != 0) {
-                        you.takeCardFromTopOfDeck(deck);
-                        System.out.println("No cards to play. Player draws a: " + you.getHand().get(you.numberOfCardsInHand() - 1));
-                    }
-                    else {
-                        you.setSkipStatus(true);
-                        System.out.println("No cards to play. No cards to draw from deck. Skipping " + you + "'s turn.");
+            // Show the player their hand; the same cards and numbering playCard() picks from
+            nextUp.getHand().clear();
+            nextUp.getHand().addAll(state.getCards(state.getNextUp()));
+
+            System.out.println("Cards left ..... " + state.cardsLeft());
+            System.out.println((state.getNewSuit() < 0)
+                    ? "Top card ....... " + Card.fromIndex(state.getTopCard())
+                    : "New suit ....... " + Card.pairTypeWithUnicode(Card.CARD_TYPES[state.getNewSuit()]));
+            System.out.println(nextUp.getHandAndChoices());
+            System.out.print(decision);
+
+            // Make sure you can lay down the card
+            GameState next = null;
+            while (next == null) {
+                String choice = input.next();
+
+                if (choice.equalsIgnoreCase("u") || choice.equalsIgnoreCase("r")) {
+                    boolean undo = choice.equalsIgnoreCase("u");
+                    boolean moved = undo ? history.undo() : history.redo();
+
+                    if (moved) {
+                        // Spectators see where the game is back at
+                        EVENTS.publishRestore(undo ? TurnEventBus.Kind.UNDO : TurnEventBus.Kind.REDO,
+                                history.current());
+                        System.out.println();
                         break;
                     }
-                }
-
-                // For formatting in the terminal
-                if (needALineBreak) System.out.println();
-
-                // Update game status for Player
-                if (!you.skipped()) {
-                    System.out.println("Cards left ..... " + deck.size());
-                    System.out.println((newSuit.length() == 0)
-                            ? "Top card ....... " + topCard
-                            : "New suit ....... " + Card.pairTypeWithUnicode(newSuit));
-                    System.out.println(you.getHandAndChoices());
-                    System.out.print("\nYour's decision: ");
-                    nextUp=player1;
-                    newSuit="";
-                }
-
-                // Make sure you can lay down the card
-                boolean validPlay = false;
-                while (!validPlay ) {
-                    try {
-                        // Sentinel-controlled iteration
-                        Card cardChoiceObject = you.playCard(input.nextInt());
-
-                        if (Rules.checkForValidPlay(newSuit, topCard, cardChoiceObject)) {
-                            topCard = cardChoiceObject;
-                            you.getHand().remove(cardChoiceObject);
-
-                            // Playing a wild card allows the player to select a new suit
-                            if (topCard.getValue().equals("8") && you.numberOfCardsInHand() != 0) {
-                                System.out.println("\n" + you.getSuitsAndChoices());
-                                System.out.print("\nYour's decision: ");
-
-                                boolean validSuit = false;
-                                do {
-                                    try {
-                                        newSuit = Card.CARD_TYPES[input.nextInt() -1];
-                                        validSuit = true;
-                                        validPlay = true;
-                                        nextUp=player1;
-                                    }
-                                    catch (IndexOutOfBoundsException e) {
-                                        handleException("Invalid selection. Please try again.");
-                                    }
-                                    catch (InputMismatchException e) {
-                                        input.next();
-                                        handleException("Invalid selection. Please try again.");
-                                    }
-                                }
-                                while (!validSuit);
-                            }
-                            else {
-                                validPlay = true;
-                            }
-                        }
-                        else {
-                            handleException("You cannot play that card. Please try again.");
-                        }
-                    }
-                    catch (IndexOutOfBoundsException e) {
-                        handleException("Invalid selection. Please try again.");
-                    }
-                    catch (InputMismatchException e) {
-                        input.next();
-                        handleException("Invalid selection. Please try again.");
-                    }
 
-                    System.out.println();
+                    handleException("Nothing to " + (undo ? "undo" : "redo") + ".");
+                    continue;
                 }
-            }
-            else {
-                boolean needALineBreak = false; // For formatting in the terminal
-
 
-                // Reset every turn; reserved for scenarios where there are no cards to draw and no cards to play
-                //you.setSkipStatus(false);
+                try {
+                    // Sentinel-controlled iteration
+                    int card = nextUp.playCard(Integer.parseInt(choice)).getIndex();
 
-                // If you cannot play a card, you have to take one from the top
-                while (!player1.canPlayCardThisTopCard(newSuit, topCard)) {
-                    needALineBreak = true;
+                    if (state.isLegal(card)) {
+                        int newSuit = -1;
 
-                    if (deck.size() != 0) {
-                        player1.takeCardFromTopOfDeck(deck);
-                        System.out.println("No cards to play. Player draws a: " + player1.getHand().get(player1.numberOfCardsInHand() - 1));
-                    }
-                    else {
-                        player1.setSkipStatus(true);
-                        System.out.println("No cards to play. No cards to draw from deck. Skipping " + player1 + "'s turn.");
-                        break;
-                    }
-                }
+                        // Playing a wild card allows the player to select a new suit
+                        if (CardBits.rank(card) == CardBits.EIGHT && nextUp.numberOfCardsInHand() != 1) {
+                            System.out.println("\n" + nextUp.getSuitsAndChoices());
+                            System.out.print(decision);
 
-                // For formatting in the terminal
-                if (needALineBreak) System.out.println();
-
-                // Update game status for Player
-                if (!player1.skipped()) {
-                System.out.println("Cards left ..... " + deck.size());
-                System.out.println((newSuit.length() == 0)
-                        ? "Top card ....... " + topCard
-                        : "New suit ....... " + Card.pairTypeWithUnicode(newSuit));
-                System.out.println(player1.getHandAndChoices());
-                System.out.print("\nPlayer's 1 decision: ");
-                    nextUp=you;
-                    newSuit="";
-                }
+                            do {
+                                try {
+                                    newSuit = input.nextInt() - 1;
 
-                // Make sure you can lay down the card
-                boolean validPlay = false;
-                while (!validPlay ) {
-                    try {
-                        // Sentinel-controlled iteration
-                        Card cardChoiceObject = player1.playCard(input.nextInt());
-
-                        if (Rules.checkForValidPlay(newSuit, topCard, cardChoiceObject)) {
-                            topCard = cardChoiceObject;
-                            player1.getHand().remove(cardChoiceObject);
-
-                            // Playing a wild card allows the player to select a new suit
-                            if (topCard.getValue().equals("8") && player1.numberOfCardsInHand() != 0) {
-                                System.out.println("\n" + player1.getSuitsAndChoices());
-                                System.out.print("\nPlayer's 1 decision: ");
-
-                                boolean validSuit = false;
-
-                                do {
-                                    try {
-                                        newSuit = Card.CARD_TYPES[input.nextInt() -1];
-                                        validSuit = true;
-                                        validPlay = true;
-                                        nextUp=you;
-                                    }
-                                    catch (IndexOutOfBoundsException e) {
-                                        handleException("Invalid selection. Please try again.");
-                                    }
-                                    catch (InputMismatchException e) {
-                                        input.next();
+                                    if (newSuit < 0 || newSuit >= Card.CARD_TYPES.length) {
+                                        newSuit = -1;
                                         handleException("Invalid selection. Please try again.");
                                     }
                                 }
-                                while (!validSuit);
-                            }
-                            else {
-                                validPlay = true;
+                                catch (InputMismatchException e) {
+                                    input.next();
+                                    handleException("Invalid selection. Please try again.");
+                                }
                             }
+                            while (newSuit < 0);
                         }
-                        else {
-                            handleException("You cannot play that card. Please try again.");
-                        }
-                    }
-                    catch (IndexOutOfBoundsException e) {
-                        handleException("Invalid selection. Please try again.");
+
+                        next = state.play(card, newSuit);
+                        EVENTS.publish(state, GameState.playMove(card, newSuit), next);
                     }
-                    catch (InputMismatchException e) {
-                        input.next();
-                        handleException("Invalid selection. Please try again.");
+                    else {
+                        handleException("You cannot play that card. Please try again.");
                     }
-
-                    System.out.println();
                 }
-            }
+                catch (IndexOutOfBoundsException | NumberFormatException e) {
+                    handleException("Invalid selection. Please try again.");
                 }
 
-
-            // See if there is a winner
-            if (you.numberOfCardsInHand() == 0) {
-                gameStatus = Status.WON;
-                reasonGameOver = "Player wins- they were able to get rid of their cards first!";
-            }
-            else if (player1.numberOfCardsInHand() == 0) {
-                gameStatus = Status.LOST;
-                reasonGameOver = "Computer wins- they were able to get rid of their cards first!";
+                System.out.println();
             }
-            else if (deck.size() == 0 ) {
-                gameStatus = Rules.determineWinner(you, player1);
 
-                if (gameStatus.equals(Status.WON)) {
-                    reasonGameOver = "Player wins!- their card total is less than the Computer's card total.";
-                }
-                else if (gameStatus.equals(Status.LOST)) {
-                    reasonGameOver = "Computer wins!- their card total is less than the Player's card total.";
-                }
-                else {
-                    gameStatus = Status.TIE;
-                    reasonGameOver = "Tie!- Player's card total and Computer's card total are the same.";
-                }
+            if (next != null) {
+                history.push(next);
             }
-            else {
+        }
 
-                // Reset this variable once a card has been played after a crazy eight
-                if (!topCard.getValue().equals("8") && newSuit.length() > 0) {
-                    newSuit = "";
-                }
+        return history.current();
+    }
 
-                // Swap turns
-                nextUp = (nextUp == firstCardPlayer) ? secondCardPlayer : firstCardPlayer;
-            }
-        }
+    /**
+     * Explains how a hand ended
+     *
+     * @param end The state the hand ended in
+     * @return The reason the game is over
+     */
+    private static String reasonGameOver(GameState end) {
+        String reasonGameOver;
+        String totals = " (Player " + CardBits.points(end.getHand(0)) + ", Computer "
+                + CardBits.points(end.getHand(1)) + ")";
 
-        // Explain what happened. The game is over.
-        //System.out.println(reasonGameOver);
+        if (end.getHand(0) == 0) {
+            reasonGameOver = "Player wins- they were able to get rid of their cards first!";
+        }
+        else if (end.getHand(1) == 0) {
+            reasonGameOver = "Computer wins- they were able to get rid of their cards first!";
+        }
+        else if (end.getStatus().equals(Status.WON)) {
+            reasonGameOver = "Player wins!- the deck ran out and their card total is lower" + totals + ".";
+        }
+        else if (end.getStatus().equals(Status.LOST)) {
+            reasonGameOver = "Computer wins!- the deck ran out and their card total is lower" + totals + ".";
+        }
+        else {
+            reasonGameOver = "Tie!- the deck ran out and both card totals are the same" + totals + ".";
+        }
 
+        return reasonGameOver;
+    }
 
     /**
      * Helper method to reduce code duplication
@@ -307,4 +230,4 @@ public class Game {
         System.out.println("\n" + message);
         System.out.print("\nPlayer decision: ");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Undo and redo over immutable GameStates. Remembering a state costs one reference, since states share their deck.
+ */
+public class GameHistory {
+
+    private final Deque<GameState> undo = new ArrayDeque<>();
+    private final Deque<GameState> redo = new ArrayDeque<>();
+    private GameState current;
+
+    /**
+     * Class constructor
+     *
+     * @param start State the game starts from
+     */
+    public GameHistory(GameState start) {
+        this.current = start;
+    }
+
+    public GameState current() {
+        return this.current;
+    }
+
+    /**
+     * Moves on to a new state; anything that could have been redone is forgotten
+     *
+     * @param next State after the latest turn
+     */
+    public void push(GameState next) {
+        undo.push(current);
+        redo.clear();
+        current = next;
+    }
+
+    /**
+     * Goes back one state
+     *
+     * @return False if there is nothing to undo
+     */
+    public boolean undo() {
+        if (undo.isEmpty()) return false;
+
+        redo.push(current);
+        current = undo.pop();
+
+        return true;
+    }
+
+    /**
+     * Goes forward again after an undo
+     *
+     * @return False if there is nothing to redo
+     */
+    public boolean redo() {
+        if (redo.isEmpty()) return false;
+
+        undo.push(current);
+        current = redo.pop();
+
+        return true;
+    }
+
+    public boolean canUndo() { return !undo.isEmpty(); }
+
+    public boolean canRedo() { return !redo.isEmpty(); }
+}
@@ -0,0 +1,99 @@
+public class GameResult {
+
+    /**
+     * Seed the game was played from
+     */
+    private final long seed;
+
+    /**
+     * Rules.RULE_SET the game was played under
+     */
+    private final int ruleSet;
+
+    /**
+     * 0 when Player was dealt to first, 1 when Player1 was
+     */
+    private final int firstPlayer;
+
+    /**
+     * Turns taken, including skipped turns
+     */
+    private final int turns;
+
+    /**
+     * Cards drawn from the deck after the deal
+     */
+    private final int draws;
+
+    /**
+     * Points left in each hand, scored with Rules.cardPoints()
+     */
+    private final int playerPoints;
+    private final int player1Points;
+
+    /**
+     * How the game ended, from Player's point of view
+     */
+    private final Game.Status status;
+
+    /**
+     * Class constructor
+     *
+     * @param seed Seed the game was played from
+     * @param ruleSet Rules.RULE_SET the game was played under
+     * @param firstPlayer 0 for Player, 1 for Player1
+     * @param turns Turns taken
+     * @param draws Cards drawn after the deal
+     * @param playerPoints Points left in Player's hand
+     * @param player1Points Points left in Player1's hand
+     * @param status How the game ended
+     */
+    public GameResult(long seed, int ruleSet, int firstPlayer, int turns, int draws, int playerPoints,
+                      int player1Points, Game.Status status) {
+        this.seed = seed;
+        this.ruleSet = ruleSet;
+        this.firstPlayer = firstPlayer;
+        this.turns = turns;
+        this.draws = draws;
+        this.playerPoints = playerPoints;
+        this.player1Points = player1Points;
+        this.status = status;
+    }
+
+    public long getSeed() { return this.seed; }
+
+    public int getRuleSet() { return this.ruleSet; }
+
+    public int getFirstPlayer() { return this.firstPlayer; }
+
+    public int getTurns() { return this.turns; }
+
+    public int getDraws() { return this.draws; }
+
+    public int getPlayerPoints() { return this.playerPoints; }
+
+    public int getPlayer1Points() { return this.player1Points; }
+
+    public Game.Status getStatus() { return this.status; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof GameResult)) return false;
+
+        GameResult other = (GameResult) o;
+        return this.seed == other.seed && this.ruleSet == other.ruleSet && this.firstPlayer == other.firstPlayer
+                && this.turns == other.turns && this.draws == other.draws && this.playerPoints == other.playerPoints
+                && this.player1Points == other.player1Points && this.status == other.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.seed) * 31 + this.turns * 7 + this.draws + this.status.ordinal();
+    }
+
+    public String toString() {
+        return "seed=" + this.seed + " rules=" + this.ruleSet + " first=" + this.firstPlayer + " turns=" + this.turns
+                + " draws=" + this.draws + " points=" + this.playerPoints + "/" + this.player1Points
+                + " " + this.status;
+    }
+}
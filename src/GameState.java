@@ -0,0 +1,380 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * An immutable snapshot of a game. Every move returns a new state in O(1): hands are CardBits masks, and the cards
+ * left to draw are a position in a deck array that all states of the same deal share and nobody ever writes to. A
+ * search can therefore branch off any state as often as it likes without copying hands or decks.
+ *
+ * Moves are ints: play(card, suit) packs the card index with the suit declared for an "8" (see playMove()), and
+ * DRAW and SKIP stand for themselves.
+ */
+public final class GameState {
+
+    /**
+     * Take the top card of the deck; only allowed when nothing in hand can be played
+     */
+    public static final int DRAW = 1 << 9;
+
+    /**
+     * Pass the turn; only allowed when nothing can be played and the deck is empty
+     */
+    public static final int SKIP = 1 << 10;
+
+    private final long seed;
+    private final byte[] deck;
+    private final int deckTop;
+    private final long playerHand;
+    private final long player1Hand;
+    private final int topCard;
+    private final int newSuit;
+    private final int nextUp;
+    private final int firstPlayer;
+    private final int turns;
+    private final int draws;
+    private final Game.Status status;
+
+    private GameState(long seed, byte[] deck, int deckTop, long playerHand, long player1Hand, int topCard,
+                      int newSuit, int nextUp, int firstPlayer, int turns, int draws, Game.Status status) {
+        this.seed = seed;
+        this.deck = deck;
+        this.deckTop = deckTop;
+        this.playerHand = playerHand;
+        this.player1Hand = player1Hand;
+        this.topCard = topCard;
+        this.newSuit = newSuit;
+        this.nextUp = nextUp;
+        this.firstPlayer = firstPlayer;
+        this.turns = turns;
+        this.draws = draws;
+        this.status = status;
+    }
+
+    /**
+     * Shuffles, picks who is dealt to first, deals and turns over the up card exactly as Simulation.play() does
+     *
+     * @param seed Seed for the deal
+     * @return The state before the first turn
+     */
+    public static GameState deal(long seed) {
+        Random rand = new Random(seed);
+
+        Player you = new Player("player");
+        Player player1 = new Player("player1");
+        ArrayList<Card> deck = Card.createDeck(rand);
+
+        Player firstCardPlayer = Rules.randomPlayer(you, player1, rand);
+        Player secondCardPlayer = (firstCardPlayer == you) ? player1 : you;
+
+        for (int c = 0; c < Rules.CARDS_TO_DEAL; c++) {
+            firstCardPlayer.takeCardFromTopOfDeck(deck);
+            secondCardPlayer.takeCardFromTopOfDeck(deck);
+        }
+
+        Card topCard = Simulation.drawUpCard(deck, rand);
+
+        byte[] order = new byte[deck.size()];
+        for (int c = 0; c < order.length; c++) {
+            order[c] = (byte) deck.get(c).getIndex();
+        }
+
+        return new GameState(seed, order, 0, mask(you), mask(player1), topCard.getIndex(), -1,
+                (secondCardPlayer == you) ? 0 : 1, (firstCardPlayer == you) ? 0 : 1, 0, 0, Game.Status.CONTINUE);
+    }
+
+    private static long mask(Player player) {
+        long hand = 0;
+
+        for (Card card : player.getHand()) {
+            hand |= 1L << card.getIndex();
+        }
+
+        return hand;
+    }
+
+    /**
+     * @param card Card index
+     * @param suit Suit index declared with an "8", or -1 for none
+     * @return The move that plays the card
+     */
+    public static int playMove(int card, int suit) {
+        return card | ((suit + 1) << 6);
+    }
+
+    /**
+     * @param move A move
+     * @return The card it plays, or -1 for DRAW and SKIP
+     */
+    public static int moveCard(int move) {
+        return (move == DRAW || move == SKIP) ? -1 : move & 63;
+    }
+
+    /**
+     * @param move A move
+     * @return The suit it declares, or -1 for none
+     */
+    public static int moveSuit(int move) {
+        return (move == DRAW || move == SKIP) ? -1 : (move >>> 6) - 1;
+    }
+
+    /**
+     * Applies any move
+     *
+     * @param move playMove(), DRAW or SKIP
+     * @return The state after the move
+     */
+    public GameState apply(int move) {
+        if (move == DRAW) return draw();
+        if (move == SKIP) return skip();
+
+        return play(moveCard(move), moveSuit(move));
+    }
+
+    /**
+     * The player up lays a card down and the turn passes
+     *
+     * @param card Index of a playable card in the player's hand
+     * @param suit For an "8" that is not the last card, the suit index declared; otherwise -1
+     * @return The state after the turn
+     */
+    public GameState play(int card, int suit) {
+        checkInProgress();
+
+        long hand = getHand(nextUp);
+        if (card < 0 || card >= CardBits.DECK_SIZE || (hand & (1L << card)) == 0) {
+            throw new IllegalArgumentException("Card " + card + " is not in the hand.");
+        }
+        if (!isLegal(card)) {
+            throw new IllegalArgumentException("You cannot play " + Card.fromIndex(card) + ".");
+        }
+
+        hand &= ~(1L << card);
+        boolean declares = CardBits.rank(card) == CardBits.EIGHT && hand != 0;
+        if (declares != (suit >= 0) || suit >= CardBits.SUITS) {
+            throw new IllegalArgumentException(declares
+                    ? "Playing an 8 requires a new suit."
+                    : "Only an 8 that is not the last card declares a suit.");
+        }
+
+        return endTurn(hand, card, suit);
+    }
+
+    /**
+     * The player up takes the top card of the deck and stays up
+     *
+     * @return The state after the draw
+     */
+    public GameState draw() {
+        checkInProgress();
+
+        if (canPlay() || cardsLeft() == 0) {
+            throw new IllegalStateException("A card can only be drawn when none can be played.");
+        }
+
+        long hand = getHand(nextUp) | (1L << deck[deckTop]);
+
+        return new GameState(seed, deck, deckTop + 1, (nextUp == 0) ? hand : playerHand,
+                (nextUp == 1) ? hand : player1Hand, topCard, newSuit, nextUp, firstPlayer, turns, draws + 1, status);
+    }
+
+    /**
+     * The player up can neither play nor draw and passes the turn
+     *
+     * @return The state after the turn
+     */
+    public GameState skip() {
+        checkInProgress();
+
+        if (canPlay() || cardsLeft() != 0) {
+            throw new IllegalStateException("A turn can only be skipped when no card can be played or drawn.");
+        }
+
+        return endTurn(getHand(nextUp), topCard, newSuit);
+    }
+
+    /**
+     * Same end-of-turn checks as the game loop: an empty hand wins, otherwise an empty deck is scored
+     */
+    private GameState endTurn(long hand, int top, int suit) {
+        long you = (nextUp == 0) ? hand : playerHand;
+        long player1 = (nextUp == 1) ? hand : player1Hand;
+
+        Game.Status after = Game.Status.CONTINUE;
+        if (you == 0) {
+            after = Game.Status.WON;
+        }
+        else if (player1 == 0) {
+            after = Game.Status.LOST;
+        }
+        else if (deckTop == deck.length) {
+            after = CardBits.determineWinner(you, player1);
+        }
+
+        return new GameState(seed, deck, deckTop, you, player1, top, suit,
+                (after == Game.Status.CONTINUE) ? nextUp ^ 1 : nextUp, firstPlayer, turns + 1, draws, after);
+    }
+
+    private void checkInProgress() {
+        if (status != Game.Status.CONTINUE) {
+            throw new IllegalStateException("The game is over.");
+        }
+    }
+
+    /**
+     * The move the computer makes here; the same choice Player.computerAi() and BatchEngine make
+     *
+     * @return A move for apply()
+     */
+    public int computerMove() {
+        long legal = playableCards();
+
+        if (legal == 0) {
+            return (cardsLeft() > 0) ? DRAW : SKIP;
+        }
+
+        int card = CardBits.computerChoice(legal);
+        long rest = getHand(nextUp) & ~(1L << card);
+
+        return playMove(card, (CardBits.rank(card) == CardBits.EIGHT && rest != 0) ? CardBits.computerSuit(rest) : -1);
+    }
+
+    /**
+     * @param card Card index
+     * @return Whether the card could be laid down on the current top card (or declared suit)
+     */
+    public boolean isLegal(int card) {
+        return (CardBits.playable(topCard, newSuit) & (1L << card)) != 0;
+    }
+
+    /**
+     * @return Whether the player up holds a card that can be played
+     */
+    public boolean canPlay() {
+        return (getHand(nextUp) & CardBits.playable(topCard, newSuit)) != 0;
+    }
+
+    /**
+     * @return Mask of the cards the player up can lay down
+     */
+    public long playableCards() {
+        return getHand(nextUp) & CardBits.playable(topCard, newSuit);
+    }
+
+    /**
+     * @param player 0 for Player, 1 for Player1
+     * @return That player's cards as a CardBits mask
+     */
+    public long getHand(int player) {
+        return (player == 0) ? playerHand : player1Hand;
+    }
+
+    /**
+     * @param player 0 for Player, 1 for Player1
+     * @return That player's cards in deck order, for display
+     */
+    public ArrayList<Card> getCards(int player) {
+        ArrayList<Card> cards = new ArrayList<>(Long.bitCount(getHand(player)));
+
+        for (long rest = getHand(player); rest != 0; rest &= rest - 1) {
+            cards.add(Card.fromIndex(Long.numberOfTrailingZeros(rest)));
+        }
+
+        return cards;
+    }
+
+    public int cardsLeft() {
+        return deck.length - deckTop;
+    }
+
+    /**
+     * @return Index of the card the next draw will take
+     */
+    public int getTopOfDeck() {
+        return deck[deckTop];
+    }
+
+    /**
+     * @param i 0 for the top of the deck, 1 for the card under it, ...
+     * @return Index of that card
+     */
+    public int getDeckCard(int i) {
+        return deck[deckTop + i];
+    }
+
+    /**
+     * The same position with the suits renamed; an equivalent game, since the rules treat every suit alike
+     *
+     * @param suitMap suitMap[s] is the suit index that suit s becomes; a permutation of 0 to 3
+     * @return The relabelled state, with its own copy of the cards left to draw
+     */
+    public GameState withSuitsRelabelled(int[] suitMap) {
+        byte[] order = new byte[cardsLeft()];
+        for (int c = 0; c < order.length; c++) {
+            order[c] = (byte) CardBits.relabel(deck[deckTop + c], suitMap);
+        }
+
+        return new GameState(seed, order, 0, CardBits.relabel(playerHand, suitMap),
+                CardBits.relabel(player1Hand, suitMap), CardBits.relabel(topCard, suitMap),
+                (newSuit < 0) ? -1 : suitMap[newSuit], nextUp, firstPlayer, turns, draws, status);
+    }
+
+    public int getTopCard() { return this.topCard; }
+
+    /**
+     * @return Suit index declared with the last "8", or -1 if none
+     */
+    public int getNewSuit() { return this.newSuit; }
+
+    /**
+     * @return 0 when Player is up, 1 when Player1 is; once the game is over, whoever took the last turn
+     */
+    public int getNextUp() { return this.nextUp; }
+
+    public int getTurns() { return this.turns; }
+
+    public int getDraws() { return this.draws; }
+
+    public Game.Status getStatus() { return this.status; }
+
+    public long getSeed() { return this.seed; }
+
+    /**
+     * @return How the game went so far, in the same form Simulation.play() reports it
+     */
+    public GameResult toResult() {
+        return new GameResult(seed, Rules.RULE_SET, firstPlayer, turns, draws, CardBits.points(playerHand),
+                CardBits.points(player1Hand), status);
+    }
+
+    /**
+     * States are equal when the rest of the game would play out the same way from them: same hands, same cards to
+     * draw in the same order, same top card, declared suit and player up. Turn and draw counters are not compared.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GameState)) return false;
+
+        GameState other = (GameState) o;
+        return playerHand == other.playerHand && player1Hand == other.player1Hand && topCard == other.topCard
+                && newSuit == other.newSuit && nextUp == other.nextUp && status == other.status
+                && Arrays.equals(deck, deckTop, deck.length, other.deck, other.deckTop, other.deck.length);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Long.hashCode(playerHand * 31 + player1Hand);
+        hash = hash * 31 + (topCard << 8 | (newSuit + 1) << 2 | nextUp);
+        hash = hash * 31 + cardsLeft();
+
+        return hash;
+    }
+
+    public String toString() {
+        return "Top card " + Card.fromIndex(topCard)
+                + ((newSuit >= 0) ? " (" + Card.pairTypeWithUnicode(Card.CARD_TYPES[newSuit]) + ")" : "")
+                + ", Player " + getCards(0) + ", Player1 " + getCards(1) + ", " + cardsLeft() + " to draw, "
+                + ((nextUp == 0) ? "Player" : "Player1") + " up, " + status;
+    }
+}
@@ -0,0 +1,274 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Simulated games as they are played, for consumers that would rather not wait for (or hold) a whole batch. Game
+ * number i is always Simulation.play(firstSeed + i).
+ */
+public class GameStream {
+
+    private GameStream() {}
+
+    /**
+     * A lazy, endless stream of games; each one is played only when the stream pulls it
+     *
+     * @param firstSeed Seed of the first game
+     * @return Games for seeds firstSeed, firstSeed + 1, ...
+     */
+    public static Stream<GameResult> of(long firstSeed) {
+        return LongStream.iterate(firstSeed, seed -> seed + 1).mapToObj(Simulation::play);
+    }
+
+    /**
+     * A lazy stream of a fixed number of games; it splits evenly, so .parallel() spreads the games across cores
+     *
+     * @param firstSeed Seed of the first game
+     * @param count Number of games
+     * @return Games for seeds firstSeed up to firstSeed + count - 1
+     */
+    public static Stream<GameResult> of(long firstSeed, long count) {
+        return LongStream.range(0, count).mapToObj(i -> Simulation.play(firstSeed + i));
+    }
+
+    /**
+     * A publisher that plays games on its own worker threads, never more than subscribers have requested. Each
+     * subscriber gets its own run of games from firstSeed, delivered in the order they finish rather than seed order.
+     *
+     * @param firstSeed Seed of the first game
+     * @param count Number of games before onComplete(); Long.MAX_VALUE for no end
+     * @param workers Worker threads per subscription
+     * @return Publisher of games
+     */
+    public static Flow.Publisher<GameResult> publisher(long firstSeed, long count, int workers) {
+        if (count < 0 || workers < 1) {
+            throw new IllegalArgumentException("Need a non-negative count and at least one worker.");
+        }
+
+        return subscriber -> new GameSubscription(subscriber, firstSeed, count, workers).start();
+    }
+
+    /**
+     * One subscriber's games. Workers claim a unit of demand before playing each game and wait when there is none;
+     * finished games are handed to the subscriber one at a time through a queue drained by whichever thread gets there
+     * first.
+     */
+    private static final class GameSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super GameResult> subscriber;
+        private final long firstSeed;
+        private final long count;
+        private final int workers;
+
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicLong nextGame = new AtomicLong();
+        private final Queue<GameResult> finished = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger drainers = new AtomicInteger();
+        private final List<Thread> threads = new ArrayList<>();
+        private final Object idle = new Object();
+
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+
+        /**
+         * Only touched while draining
+         */
+        private long emitted;
+        private boolean terminated;
+
+        GameSubscription(Flow.Subscriber<? super GameResult> subscriber, long firstSeed, long count, int workers) {
+            this.subscriber = subscriber;
+            this.firstSeed = firstSeed;
+            this.count = count;
+            this.workers = workers;
+        }
+
+        void start() {
+            for (int w = 0; w < workers; w++) {
+                Thread thread = new Thread(this::work, "game-worker-" + w);
+                thread.setDaemon(true);
+                threads.add(thread);
+            }
+
+            subscriber.onSubscribe(this);
+
+            // Nothing to play at all; complete without starting anyone
+            if (count == 0) {
+                drain();
+                return;
+            }
+
+            threads.forEach(Thread::start);
+        }
+
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Requested " + n + " games; demand must be positive."));
+                return;
+            }
+
+            demand.getAndAccumulate(n, (current, more) -> (current + more < 0) ? Long.MAX_VALUE : current + more);
+            wakeWorkers();
+        }
+
+        public void cancel() {
+            cancelled = true;
+            wakeWorkers();
+        }
+
+        private void work() {
+            try {
+                while (!cancelled) {
+                    if (!claimDemand()) {
+                        synchronized (idle) {
+                            while (demand.get() == 0 && !cancelled) idle.wait();
+                        }
+                        continue;
+                    }
+
+                    long game = nextGame.getAndIncrement();
+                    if (game >= count) break;
+
+                    finished.add(Simulation.play(firstSeed + game));
+                    drain();
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            catch (Throwable t) {
+                fail(t);
+            }
+        }
+
+        private boolean claimDemand() {
+            long current;
+
+            do {
+                current = demand.get();
+                if (current == 0) return false;
+            }
+            while (current != Long.MAX_VALUE && !demand.compareAndSet(current, current - 1));
+
+            return true;
+        }
+
+        private void fail(Throwable t) {
+            if (cancelled) return;
+
+            error = t;
+            cancel();
+            drain();
+        }
+
+        private void wakeWorkers() {
+            synchronized (idle) {
+                idle.notifyAll();
+            }
+        }
+
+        /**
+         * Serializes every signal to the subscriber; a thread that finds someone else draining leaves them its work. No
+         * exception from the subscriber escapes, so the drain is always handed back.
+         */
+        private void drain() {
+            if (drainers.getAndIncrement() != 0) return;
+
+            int missed = 1;
+            do {
+                GameResult result;
+                while (!terminated && !cancelled && (result = finished.poll()) != null) {
+                    try {
+                        subscriber.onNext(result);
+                        emitted++;
+                    }
+                    catch (Throwable t) {
+                        // A subscriber that throws is cancelled and told why, below
+                        if (error == null) error = t;
+                        cancel();
+                    }
+                }
+
+                try {
+                    if (!terminated && error != null) {
+                        terminated = true;
+                        subscriber.onError(error);
+                    }
+                    else if (!terminated && !cancelled && emitted == count) {
+                        terminated = true;
+                        cancel();
+                        subscriber.onComplete();
+                    }
+                }
+                catch (Throwable t) {
+                    // Nothing is left to tell; the stream is over either way
+                }
+
+                missed = drainers.addAndGet(-missed);
+            }
+            while (missed != 0);
+        }
+    }
+
+    /**
+     * Estimates Player's win rate, stopping as soon as the estimate is within +/- 0.5% (95% confidence)
+     *
+     * > java GameStream [first seed]
+     */
+    public static void main(String[] args) throws InterruptedException {
+        long firstSeed = (args.length > 0) ? Long.parseLong(args[0]) : 0;
+        int batch = 1024;
+        CountDownLatch done = new CountDownLatch(1);
+
+        publisher(firstSeed, Long.MAX_VALUE, Runtime.getRuntime().availableProcessors())
+                .subscribe(new Flow.Subscriber<GameResult>() {
+                    private Flow.Subscription subscription;
+                    private long games;
+                    private long wins;
+
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        this.subscription = subscription;
+                        subscription.request(batch);
+                    }
+
+                    public void onNext(GameResult result) {
+                        games++;
+                        if (result.getStatus() == Game.Status.WON) wins++;
+
+                        if (games % batch == 0) {
+                            double rate = (double) wins / games;
+                            double margin = 1.96 * Math.sqrt(rate * (1 - rate) / games);
+
+                            if (margin < 0.005) {
+                                subscription.cancel();
+                                System.out.printf("Player wins %.2f%% +/- %.2f%% after %d games%n",
+                                        100 * rate, 100 * margin, games);
+                                done.countDown();
+                                return;
+                            }
+
+                            subscription.request(batch);
+                        }
+                    }
+
+                    public void onError(Throwable t) {
+                        t.printStackTrace();
+                        done.countDown();
+                    }
+
+                    public void onComplete() {
+                        done.countDown();
+                    }
+                });
+
+        done.await(1, TimeUnit.MINUTES);
+    }
+}
@@ -0,0 +1,245 @@
+import java.util.stream.IntStream;
+
+/**
+ * A match of Crazy Eights played over as many rounds as it takes one player to reach the target score. The winner of
+ * a round scores the points left in the loser's hand (Rules.cardPoints()); nobody scores on a tie.
+ */
+public class Match {
+
+    /**
+     * Usual targets; a short match and a long one
+     */
+    public static final int SHORT_MATCH = 100;
+    public static final int LONG_MATCH = 500;
+
+    /**
+     * Matches handed to one BatchEngine at a time when simulating
+     */
+    private static final int MATCHES_PER_BATCH = 4096;
+
+    private final int target;
+    private final int[] points = new int[2];
+    private final int[] roundsWon = new int[2];
+    private int rounds;
+
+    /**
+     * Class constructor
+     *
+     * @param target Points needed to win the match
+     */
+    public Match(int target) {
+        this(target, 0, 0);
+    }
+
+    /**
+     * Picks up a match that is already under way
+     *
+     * @param target Points needed to win the match
+     * @param playerPoints Player's score so far
+     * @param player1Points Player1's score so far
+     */
+    public Match(int target, int playerPoints, int player1Points) {
+        if (target <= 0) {
+            throw new IllegalArgumentException("Target score must be positive.");
+        }
+
+        this.target = target;
+        this.points[0] = playerPoints;
+        this.points[1] = player1Points;
+    }
+
+    /**
+     * Updates the standings with the outcome of one round
+     *
+     * @param result The round that was just played
+     * @return Points scored by the round's winner
+     */
+    public int record(GameResult result) {
+        if (isOver()) {
+            throw new IllegalStateException("The match is already over.");
+        }
+
+        rounds++;
+
+        int scored = 0;
+        if (result.getStatus() == Game.Status.WON) {
+            scored = result.getPlayer1Points();
+            points[0] += scored;
+            roundsWon[0]++;
+        }
+        else if (result.getStatus() == Game.Status.LOST) {
+            scored = result.getPlayerPoints();
+            points[1] += scored;
+            roundsWon[1]++;
+        }
+
+        return scored;
+    }
+
+    /**
+     * Plays the next round between two computer players
+     *
+     * @param seed Seed for the round
+     * @return The round's result
+     */
+    public GameResult playRound(long seed) {
+        GameResult result = Simulation.play(seed);
+        record(result);
+
+        return result;
+    }
+
+    public boolean isOver() {
+        return points[0] >= target || points[1] >= target;
+    }
+
+    /**
+     * @return How the match stands from Player's point of view; CONTINUE until someone reaches the target
+     */
+    public Game.Status getStatus() {
+        return status(points[0], points[1], target);
+    }
+
+    /**
+     * @param player 0 for Player, 1 for Player1
+     * @return That player's score
+     */
+    public int getPoints(int player) { return this.points[player]; }
+
+    /**
+     * @param player 0 for Player, 1 for Player1
+     * @return Rounds that player has won
+     */
+    public int getRoundsWon(int player) { return this.roundsWon[player]; }
+
+    public int getRounds() { return this.rounds; }
+
+    public int getTarget() { return this.target; }
+
+    public String toString() {
+        return "Round " + rounds + " ... Player " + points[0] + ", Player1 " + points[1]
+                + " (playing to " + target + ")";
+    }
+
+    private static Game.Status status(int playerPoints, int player1Points, int target) {
+        if (playerPoints < target && player1Points < target) {
+            return Game.Status.CONTINUE;
+        }
+        if (playerPoints == player1Points) {
+            return Game.Status.TIE;
+        }
+
+        return (playerPoints > player1Points) ? Game.Status.WON : Game.Status.LOST;
+    }
+
+    /**
+     * Estimates the chance that Player wins a match from the given score by playing it out many times. Round by
+     * round, the next hand of every unfinished match is played in a BatchEngine; batches run in parallel.
+     *
+     * @param target Points needed to win the match
+     * @param playerPoints Player's score so far
+     * @param player1Points Player1's score so far
+     * @param matches Number of matches to play out
+     * @param seed Seed for the whole run
+     * @return Fraction of matches won by Player, lost, and tied
+     */
+    public static double[] winProbability(int target, int playerPoints, int player1Points, int matches, long seed) {
+        int[] scores0 = new int[matches];
+        int[] scores1 = new int[matches];
+        int[] live = new int[matches];
+        int liveCount = 0;
+
+        for (int m = 0; m < matches; m++) {
+            scores0[m] = playerPoints;
+            scores1[m] = player1Points;
+            if (status(playerPoints, player1Points, target) == Game.Status.CONTINUE) {
+                live[liveCount++] = m;
+            }
+        }
+
+        for (int round = 0; liveCount > 0; round++) {
+            final int[] playing = live;
+            final int playingCount = liveCount;
+            final int roundNumber = round;
+
+            IntStream.range(0, (playingCount + MATCHES_PER_BATCH - 1) / MATCHES_PER_BATCH).parallel().forEach(b -> {
+                int from = b * MATCHES_PER_BATCH;
+                int to = Math.min(playingCount, from + MATCHES_PER_BATCH);
+
+                long[] seeds = new long[to - from];
+                for (int i = from; i < to; i++) {
+                    seeds[i - from] = roundSeed(seed, playing[i], roundNumber);
+                }
+
+                BatchEngine engine = new BatchEngine(seeds);
+                engine.run();
+
+                // Each match belongs to exactly one batch, so these writes never collide
+                for (int i = from; i < to; i++) {
+                    GameResult result = engine.result(i - from);
+
+                    if (result.getStatus() == Game.Status.WON) {
+                        scores0[playing[i]] += result.getPlayer1Points();
+                    }
+                    else if (result.getStatus() == Game.Status.LOST) {
+                        scores1[playing[i]] += result.getPlayerPoints();
+                    }
+                }
+            });
+
+            // Keep only the matches that are still going
+            int still = 0;
+            for (int i = 0; i < playingCount; i++) {
+                int m = playing[i];
+                if (status(scores0[m], scores1[m], target) == Game.Status.CONTINUE) {
+                    live[still++] = m;
+                }
+            }
+            liveCount = still;
+        }
+
+        double[] outcomes = new double[3];
+        for (int m = 0; m < matches; m++) {
+            Game.Status status = status(scores0[m], scores1[m], target);
+            outcomes[(status == Game.Status.WON) ? 0 : (status == Game.Status.LOST) ? 1 : 2] += 1.0 / matches;
+        }
+
+        return outcomes;
+    }
+
+    /**
+     * Spreads (run seed, match, round) over the seed space so every round of every match gets its own deal
+     */
+    private static long roundSeed(long seed, int match, int round) {
+        long z = seed + 0x9E3779B97F4A7C15L * (((long) match << 20) + round + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Plays one match round by round, then estimates Player's chances from the score after the first round
+     *
+     * > java Match [target] [matches] [seed]
+     */
+    public static void main(String[] args) {
+        int target = (args.length > 0) ? Integer.parseInt(args[0]) : SHORT_MATCH;
+        int matches = (args.length > 1) ? Integer.parseInt(args[1]) : 100_000;
+        long seed = (args.length > 2) ? Long.parseLong(args[2]) : System.nanoTime();
+
+        Match match = new Match(target);
+        while (!match.isOver()) {
+            GameResult result = match.playRound(roundSeed(seed, -1, match.getRounds()));
+            System.out.println(match + " ... " + result.getStatus());
+
+            if (match.getRounds() == 1 && !match.isOver()) {
+                double[] odds = winProbability(target, match.getPoints(0), match.getPoints(1), matches, seed);
+                System.out.printf("Player's chances from here: %.1f%% win, %.1f%% lose, %.1f%% tie%n",
+                        100 * odds[0], 100 * odds[1], 100 * odds[2]);
+            }
+        }
+
+        System.out.println("Match over: " + match.getStatus());
+    }
+}
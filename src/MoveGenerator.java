@@ -0,0 +1,78 @@
+/**
+ * Lists every legal move in a GameState, as moves for GameState.apply():
+ *
+ *  1.) Each playable card that is not an "8"
+ *  2.) Each playable "8" once per suit it could call (just once if it is the last card in hand)
+ *  3.) DRAW, only when nothing can be played and the deck is not empty
+ *  4.) SKIP, only when nothing can be played and the deck is empty
+ *
+ * A game that is over has no moves.
+ */
+public final class MoveGenerator {
+
+    /**
+     * Enough room for any position: at most 13 cards of one suit, 3 more of the top card's rank and 4 "8"s with 4
+     * suits each
+     */
+    public static final int MAX_MOVES = 64;
+
+    private MoveGenerator() {}
+
+    /**
+     * @param state Position to move from
+     * @param moves Filled from index 0; at least MAX_MOVES long
+     * @return Number of moves written
+     */
+    public static int generate(GameState state, int[] moves) {
+        if (state.getStatus() != Game.Status.CONTINUE) {
+            return 0;
+        }
+
+        long playable = state.playableCards();
+
+        if (playable == 0) {
+            moves[0] = (state.cardsLeft() > 0) ? GameState.DRAW : GameState.SKIP;
+            return 1;
+        }
+
+        int count = 0;
+        boolean lastCard = Long.bitCount(state.getHand(state.getNextUp())) == 1;
+
+        for (long rest = playable; rest != 0; rest &= rest - 1) {
+            int card = Long.numberOfTrailingZeros(rest);
+
+            if (CardBits.rank(card) == CardBits.EIGHT && !lastCard) {
+                for (int suit = 0; suit < CardBits.SUITS; suit++) {
+                    moves[count++] = GameState.playMove(card, suit);
+                }
+            }
+            else {
+                moves[count++] = GameState.playMove(card, -1);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Counts the moves without listing them
+     *
+     * @param state Position to move from
+     * @return Number of legal moves
+     */
+    public static int count(GameState state) {
+        if (state.getStatus() != Game.Status.CONTINUE) {
+            return 0;
+        }
+
+        long playable = state.playableCards();
+        if (playable == 0) {
+            return 1;
+        }
+
+        int eights = Long.bitCount(playable & CardBits.EIGHTS);
+        boolean lastCard = Long.bitCount(state.getHand(state.getNextUp())) == 1;
+
+        return Long.bitCount(playable) + (lastCard ? 0 : eights * (CardBits.SUITS - 1));
+    }
+}
@@ -0,0 +1,181 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Counts the positions a seeded deal can reach in exactly N moves (a draw counts as a move), the way chess engines
+ * test their move generators. A game that ends before depth N adds nothing. The counts pin down the rules: any change
+ * to what is legal changes them. The time taken measures the move machinery.
+ */
+public final class Perft {
+
+    /**
+     * Positions are split across threads once there are at least this many per thread
+     */
+    private static final int TASKS_PER_THREAD = 16;
+
+    private Perft() {}
+
+    /**
+     * Single-threaded perft
+     *
+     * @param state Position to count from
+     * @param depth Moves to look ahead
+     * @return Number of positions exactly depth moves away
+     */
+    public static long perft(GameState state, int depth) {
+        if (depth == 0) return 1;
+
+        return perft(state, depth, new int[depth][MoveGenerator.MAX_MOVES]);
+    }
+
+    /**
+     * @param buffers One move list per remaining ply, reused across siblings
+     */
+    private static long perft(GameState state, int depth, int[][] buffers) {
+        // The last ply only needs counting
+        if (depth == 1) {
+            return MoveGenerator.count(state);
+        }
+
+        int[] moves = buffers[depth - 1];
+        int count = MoveGenerator.generate(state, moves);
+        long nodes = 0;
+
+        for (int m = 0; m < count; m++) {
+            nodes += perft(state.apply(moves[m]), depth - 1, buffers);
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Perft split across a pool: the tree is expanded breadth-first until there is enough work to go round, then the
+     * subtrees are counted in parallel
+     *
+     * @param state Position to count from
+     * @param depth Moves to look ahead
+     * @param pool Threads to count with
+     * @return Number of positions exactly depth moves away
+     */
+    public static long perft(GameState state, int depth, ForkJoinPool pool) {
+        List<GameState> frontier = new ArrayList<>();
+        frontier.add(state);
+
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int remaining = depth;
+
+        while (remaining > 1 && frontier.size() < TASKS_PER_THREAD * pool.getParallelism()) {
+            List<GameState> next = new ArrayList<>();
+
+            for (GameState position : frontier) {
+                int count = MoveGenerator.generate(position, moves);
+                for (int m = 0; m < count; m++) next.add(position.apply(moves[m]));
+            }
+
+            frontier = next;
+            remaining--;
+        }
+
+        final List<GameState> tasks = frontier;
+        final int subtreeDepth = remaining;
+
+        return pool.submit(() -> tasks.parallelStream().mapToLong(position -> perft(position, subtreeDepth)).sum())
+                .join();
+    }
+
+    /**
+     * Perft per root move, for tracking down where two move generators disagree
+     *
+     * @param state Position to count from
+     * @param depth Moves to look ahead; at least 1
+     * @return Count under each root move, as "move: count" lines
+     */
+    public static String divide(GameState state, int depth) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generate(state, moves);
+        StringBuilder lines = new StringBuilder();
+
+        for (int m = 0; m < count; m++) {
+            lines.append(describe(moves[m])).append(": ").append(perft(state.apply(moves[m]), depth - 1)).append('\n');
+        }
+
+        return lines.toString();
+    }
+
+    /**
+     * @param move A GameState move
+     * @return How the move reads to a person
+     */
+    public static String describe(int move) {
+        if (move == GameState.DRAW) return "Draw";
+        if (move == GameState.SKIP) return "Skip";
+
+        int suit = GameState.moveSuit(move);
+        return Card.fromIndex(GameState.moveCard(move))
+                + ((suit >= 0) ? " calling " + Card.pairTypeWithUnicode(Card.CARD_TYPES[suit]) : "");
+    }
+
+    /**
+     * Checks the generator against Rules.checkForValidPlay() at every position up to the given depth
+     *
+     * @return Number of positions where they disagree
+     */
+    static long checkAgainstRules(GameState state, int depth) {
+        if (state.getStatus() != Game.Status.CONTINUE) return 0;
+
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generate(state, moves);
+
+        long generated = 0;
+        for (int m = 0; m < count; m++) {
+            if (GameState.moveCard(moves[m]) >= 0) generated |= 1L << GameState.moveCard(moves[m]);
+        }
+
+        String newSuit = (state.getNewSuit() < 0) ? "" : Card.CARD_TYPES[state.getNewSuit()];
+        Card topCard = Card.fromIndex(state.getTopCard());
+        long valid = 0;
+        for (Card card : state.getCards(state.getNextUp())) {
+            if (Rules.checkForValidPlay(newSuit, topCard, card)) valid |= 1L << card.getIndex();
+        }
+
+        long errors = (generated == valid && (count == MoveGenerator.count(state))) ? 0 : 1;
+        if (depth > 0) {
+            for (int m = 0; m < count; m++) errors += checkAgainstRules(state.apply(moves[m]), depth - 1);
+        }
+
+        return errors;
+    }
+
+    /**
+     * Runs perft from a seeded deal at each depth up to the one given, on one thread and then on all of them
+     *
+     * > java Perft [seed] [depth]
+     */
+    public static void main(String[] args) {
+        long seed = (args.length > 0) ? Long.parseLong(args[0]) : 1;
+        int depth = (args.length > 1) ? Integer.parseInt(args[1]) : 40;
+        GameState deal = GameState.deal(seed);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        System.out.println(deal);
+        System.out.println("Positions disagreeing with Rules.checkForValidPlay() within 4 moves: "
+                + checkAgainstRules(deal, 4));
+        System.out.println("\n" + divide(deal, Math.min(depth, 4)));
+
+        for (int d = 1; d <= depth; d++) {
+            long start = System.nanoTime();
+            long single = perft(deal, d);
+            double singleSeconds = (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            long parallel = perft(deal, d, pool);
+            double parallelSeconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("Depth %2d ... %,15d positions   1 thread %8.3f s (%,.0f/s)", d, single, singleSeconds,
+                    single / singleSeconds);
+            System.out.printf("   %d threads %8.3f s (%,.0f/s)%s%n", pool.getParallelism(), parallelSeconds,
+                    parallel / parallelSeconds, (single == parallel) ? "" : "   MISMATCH " + parallel);
+        }
+    }
+}
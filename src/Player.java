@@ -1,8 +1,5 @@
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public class Player implements PlayerActions {
 
@@ -173,114 +170,63 @@ public class Player implements PlayerActions {
         return canPlay;
     }
 
-    public boolean skipped() {
-        return this.skippedRecentTurn;
-    }
-
-
-    public void setSkipStatus(boolean status) {
-        this.skippedRecentTurn = status;
-    }
-}
     /**
-     * The Computer will play a card in it's hand
+     * The Computer picks the card in it's hand to play. Eights are held as long as possible and, among the other
+     * legal cards, the one with the highest point value is discarded (lowest card index breaks ties).
      *
      * @param newSuit If an "8" was played, it's the new suit to be played
      * @param topCard Last card played
-     * @return The card the computer is playing for it's turn
+     * @return The card the computer is playing for it's turn, or null if it has nothing to play
      */
-    /*
     public Card computerAi(String newSuit, Card topCard) {
-        // @TODO Ensure only the computer can access this method
-
-        /**
-         *  3 options:
-         *
-         *  1.) Play a suit
-         *  2.) Play a card value
-         *  3.) Play an "8" (only if there are no other options)
-         */
-/*
-        ArrayList<String> waysToPlay = new ArrayList<>(2);
-        waysToPlay.add("suit");
-        waysToPlay.add("rank");
-
-        Collections.shuffle(waysToPlay);
-
-        // Maintain that suit array and rank array are kept in parody with the hand we are looping over
-        ArrayList<String> suits = new ArrayList<>(Card.CARD_TYPES.length);
-        ArrayList<String> ranks = new ArrayList<>(Card.CARD_RANKS.length);
+        Card best = null;
+        Card eight = null;
 
         for (Card card : this.hand) {
-            suits.add(card.getType());
-            ranks.add(card.getValue());
-        }
-
-        int firstOccurrence = -1;
-
-        if (newSuit.length() > 0) {
-            firstOccurrence = suits.indexOf(newSuit);
-        }
-        else {
-            for (String suitOrRank : waysToPlay) {
-                if (suitOrRank.equals("suit") && suits.contains(topCard.getType())) {
-                    firstOccurrence = suits.indexOf(topCard.getType());
-                    break;
-                }
+            if (!Rules.checkForValidPlay(newSuit, topCard, card)) {
+                continue;
+            }
 
-                // @TODO Alternatively I could have used lastIndexOf() instead of indexOf() in both cases
-                if (suitOrRank.equals("rank") && ranks.contains(topCard.getValue())) {
-                    firstOccurrence = ranks.indexOf(topCard.getValue());
-                    break;
+            if (card.getValue().equals("8")) {
+                if (eight == null || card.getIndex() < eight.getIndex()) {
+                    eight = card;
                 }
             }
+            else if (best == null || Rules.cardPoints(card) > Rules.cardPoints(best)
+                    || (Rules.cardPoints(card) == Rules.cardPoints(best) && card.getIndex() < best.getIndex())) {
+                best = card;
+            }
         }
 
-        // Play the "8" if all else fails (hold onto it as long as possible)
-        if (firstOccurrence == -1 && ranks.contains("8")) {
-            firstOccurrence = ranks.indexOf("8");
-        }
-
-        // @TODO The computer should ideally discard the card with the highest point value
-        Card cardToPlay = this.hand.get(firstOccurrence);
-        this.hand.remove(firstOccurrence);
-
-        return cardToPlay;
+        return (best != null) ? best : eight;
     }
 
     /**
-     * Computer mixes it up and selects a new suit to be played
+     * Computer selects the suit it holds the most of after playing a crazy eight (first in CARD_TYPES on a tie)
      *
-     * @return The new suit to be played after playing a crazy eight
+     * @return The new suit to be played
      */
-    /*
     public String computerSelectNewSuit() {
-        // @TODO Ensure only the computer can access this method
+        int[] counts = new int[Card.CARD_TYPES.length];
 
-        ArrayList<String> suits = new ArrayList<>(this.hand.size());
         for (Card card : this.hand) {
-            suits.add(card.getType());
+            counts[card.getIndex() / Card.CARD_RANKS.length]++;
         }
 
-        // Gather counts for each suit
-        Map<String, Long> counts = suits.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
-        String newSuit = counts.entrySet().stream().max((entry1, entry2) -> entry1.getValue() > entry2.getValue() ? 1 : -1).get().getKey();
+        int suit = 0;
+        for (int s = 1; s < counts.length; s++) {
+            if (counts[s] > counts[suit]) suit = s;
+        }
 
-        return newSuit;
+        return Card.CARD_TYPES[suit];
     }
 
-    /**
-     * Becomes true once a player cannot play a card in their hand and there are no cards left in the deck
-     */
-    /*
+    public boolean skipped() {
+        return this.skippedRecentTurn;
+    }
+
+
     public void setSkipStatus(boolean status) {
         this.skippedRecentTurn = status;
     }
-
-    /**
-     * @return Whether or not the player has moves
-     */
-    /*
-    public boolean skipped() { return this.skippedRecentTurn; }
 }
-*/
\ No newline at end of file
@@ -0,0 +1,537 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Append-only, columnar file of game results; one row per game.
+ *
+ * The file is a header followed by blocks of up to BLOCK_ROWS rows. Each block starts with its row count and the
+ * byte length of every column, so a reader can seek straight to the columns a query needs. Within a block a column
+ * is bit-packed against its minimum (frame of reference), or against the minimum difference between neighbouring
+ * rows when that packs tighter, as it does for runs of consecutive seeds.
+ */
+public class ResultStore {
+
+    /**
+     * The columns of a row, in the order they are stored in a block
+     */
+    public enum Column {SEED, RULE_SET, FIRST_PLAYER, TURNS, DRAWS, PLAYER_POINTS, PLAYER1_POINTS, STATUS}
+
+    private static final Column[] COLUMNS = Column.values();
+
+    /**
+     * "C8RS" and the format version
+     */
+    private static final int MAGIC = 0x43385253;
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 8;
+
+    /**
+     * Rows buffered before a block is written
+     */
+    public static final int BLOCK_ROWS = 1 << 16;
+
+    private static final int BLOCK_HEADER_BYTES = 4 + 4 * COLUMNS.length;
+
+    /**
+     * Delta flag, bit width, first value and minimum ahead of the packed words
+     */
+    private static final int COLUMN_HEADER_BYTES = 1 + 1 + 8 + 8;
+
+    private ResultStore() {}
+
+    /**
+     * Buffers rows and appends them to the file a block at a time
+     */
+    public static class Writer implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final long[][] buffer = new long[COLUMNS.length][BLOCK_ROWS];
+        private int rows;
+
+        /**
+         * Opens the file for appending, creating it if it does not exist
+         *
+         * @param path Results file
+         * @throws IOException If the file cannot be opened or is not a results file
+         */
+        public Writer(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+
+            try {
+                if (channel.size() == 0) {
+                    ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+                    header.flip();
+                    writeFully(header, 0);
+                }
+                else {
+                    checkHeader(channel);
+                }
+
+                // Drop a block torn by a crash so new blocks follow the last complete one
+                channel.truncate(indexBlocks(channel).end);
+            }
+            catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Adds one game to the file; rows become visible to readers once their block is flushed
+         *
+         * @param result The game to record
+         * @throws IOException If a full block cannot be written
+         */
+        public void append(GameResult result) throws IOException {
+            buffer[Column.SEED.ordinal()][rows] = result.getSeed();
+            buffer[Column.RULE_SET.ordinal()][rows] = result.getRuleSet();
+            buffer[Column.FIRST_PLAYER.ordinal()][rows] = result.getFirstPlayer();
+            buffer[Column.TURNS.ordinal()][rows] = result.getTurns();
+            buffer[Column.DRAWS.ordinal()][rows] = result.getDraws();
+            buffer[Column.PLAYER_POINTS.ordinal()][rows] = result.getPlayerPoints();
+            buffer[Column.PLAYER1_POINTS.ordinal()][rows] = result.getPlayer1Points();
+            buffer[Column.STATUS.ordinal()][rows] = result.getStatus().ordinal();
+
+            if (++rows == BLOCK_ROWS) {
+                flush();
+            }
+        }
+
+        /**
+         * Writes the buffered rows as a (possibly short) block
+         *
+         * @throws IOException If the block cannot be written
+         */
+        public void flush() throws IOException {
+            if (rows == 0) return;
+
+            ByteBuffer[] columns = new ByteBuffer[COLUMNS.length];
+            ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_BYTES).putInt(rows);
+
+            for (int c = 0; c < COLUMNS.length; c++) {
+                columns[c] = encode(buffer[c], rows);
+                header.putInt(columns[c].remaining());
+            }
+            header.flip();
+
+            long position = channel.size();
+            position = writeFully(header, position);
+            for (ByteBuffer column : columns) {
+                position = writeFully(column, position);
+            }
+            channel.force(false);
+
+            rows = 0;
+        }
+
+        public void close() throws IOException {
+            try {
+                flush();
+            }
+            finally {
+                channel.close();
+            }
+        }
+
+        private long writeFully(ByteBuffer bytes, long position) throws IOException {
+            while (bytes.hasRemaining()) {
+                position += channel.write(bytes, position);
+            }
+
+            return position;
+        }
+    }
+
+    /**
+     * A decoded block; only the columns asked for are present
+     */
+    public static final class Block {
+
+        private final int rows;
+        private final long[][] values = new long[COLUMNS.length][];
+
+        private Block(int rows) {
+            this.rows = rows;
+        }
+
+        public int size() {
+            return this.rows;
+        }
+
+        /**
+         * @param column A column named when the scan started
+         * @return One value per row; Game.Status columns hold the ordinal
+         */
+        public long[] get(Column column) {
+            long[] decoded = values[column.ordinal()];
+
+            if (decoded == null) {
+                throw new IllegalArgumentException("Column " + column + " was not part of the scan.");
+            }
+
+            return decoded;
+        }
+    }
+
+    /**
+     * Folds one decoded block into a partial result
+     */
+    public interface BlockAccumulator<A> {
+        void accept(A partial, Block block);
+    }
+
+    /**
+     * Answers queries over a results file. Blocks are decoded in parallel and only the requested columns are read.
+     */
+    public static class Reader implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final List<BlockInfo> blocks;
+        private final long rows;
+
+        /**
+         * Opens the file and indexes its complete blocks
+         *
+         * @param path Results file
+         * @throws IOException If the file cannot be read or is not a results file
+         */
+        public Reader(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+
+            try {
+                checkHeader(channel);
+                Index index = indexBlocks(channel);
+                this.blocks = index.blocks;
+                this.rows = index.rows;
+            }
+            catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * @return Number of rows in the file
+         */
+        public long rows() {
+            return this.rows;
+        }
+
+        /**
+         * Mutable reduction over every block, run in parallel
+         *
+         * @param columns Columns the accumulator reads
+         * @param supplier Creates an empty partial result
+         * @param accumulator Folds a block into a partial result
+         * @param combiner Merges the second partial result into the first
+         * @return The combined result
+         */
+        public <A> A scan(EnumSet<Column> columns, Supplier<A> supplier, BlockAccumulator<A> accumulator,
+                          BiConsumer<A, A> combiner) {
+            return IntStream.range(0, blocks.size())
+                    .parallel()
+                    .collect(supplier, (partial, b) -> accumulator.accept(partial, read(blocks.get(b), columns)),
+                            combiner);
+        }
+
+        /**
+         * @return Number of games that ended with each Game.Status, indexed by ordinal
+         */
+        public long[] countByStatus() {
+            return scan(EnumSet.of(Column.STATUS), () -> new long[Game.Status.values().length],
+                    (counts, block) -> {
+                        for (long status : block.get(Column.STATUS)) counts[(int) status]++;
+                    },
+                    (counts, other) -> {
+                        for (int s = 0; s < counts.length; s++) counts[s] += other[s];
+                    });
+        }
+
+        /**
+         * @param column Column to total
+         * @return Sum of the column over every row
+         */
+        public long sum(Column column) {
+            return scan(EnumSet.of(column), () -> new long[1],
+                    (total, block) -> {
+                        for (long value : block.get(column)) total[0] += value;
+                    },
+                    (total, other) -> total[0] += other[0])[0];
+        }
+
+        /**
+         * @param column Column to average
+         * @return Mean of the column, or NaN for an empty file
+         */
+        public double average(Column column) {
+            return (rows == 0) ? Double.NaN : (double) sum(column) / rows;
+        }
+
+        /**
+         * @param column Column to test
+         * @param predicate Test applied to each value
+         * @return Number of rows whose value passes
+         */
+        public long count(Column column, LongPredicate predicate) {
+            return scan(EnumSet.of(column), () -> new long[1],
+                    (total, block) -> {
+                        for (long value : block.get(column)) {
+                            if (predicate.test(value)) total[0]++;
+                        }
+                    },
+                    (total, other) -> total[0] += other[0])[0];
+        }
+
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private Block read(BlockInfo info, EnumSet<Column> columns) {
+            Block block = new Block(info.rows);
+
+            try {
+                for (Column column : columns) {
+                    int c = column.ordinal();
+                    ByteBuffer bytes = ByteBuffer.allocate(info.columnLengths[c]);
+                    readFully(channel, bytes, info.columnPositions[c]);
+                    bytes.flip();
+                    block.values[c] = decode(bytes, info.rows);
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return block;
+        }
+    }
+
+    /**
+     * Where a block's columns live in the file
+     */
+    private static final class BlockInfo {
+        int rows;
+        long[] columnPositions = new long[COLUMNS.length];
+        int[] columnLengths = new int[COLUMNS.length];
+    }
+
+    private static final class Index {
+        List<BlockInfo> blocks = new ArrayList<>();
+        long rows;
+        long end = FILE_HEADER_BYTES;
+    }
+
+    private static void checkHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+
+        if (channel.size() < FILE_HEADER_BYTES || readFully(channel, header, 0) < FILE_HEADER_BYTES
+                || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a game results file.");
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("Unsupported results file version " + header.getInt(4) + ".");
+        }
+    }
+
+    /**
+     * Walks the block headers; a trailing block that was not completely written is left out
+     */
+    private static Index indexBlocks(FileChannel channel) throws IOException {
+        Index index = new Index();
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_BYTES);
+
+        while (index.end + BLOCK_HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, index.end);
+
+            BlockInfo info = new BlockInfo();
+            info.rows = header.getInt(0);
+
+            long position = index.end + BLOCK_HEADER_BYTES;
+            for (int c = 0; c < COLUMNS.length; c++) {
+                info.columnPositions[c] = position;
+                info.columnLengths[c] = header.getInt(4 + 4 * c);
+                position += info.columnLengths[c];
+            }
+
+            if (position > size) break;
+
+            index.blocks.add(info);
+            index.rows += info.rows;
+            index.end = position;
+        }
+
+        return index;
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer bytes, long position) throws IOException {
+        int total = 0;
+
+        while (bytes.hasRemaining()) {
+            int read = channel.read(bytes, position + total);
+            if (read < 0) break;
+            total += read;
+        }
+
+        return total;
+    }
+
+    /**
+     * Packs a column with whichever of frame-of-reference or delta encoding needs fewer bits per value
+     */
+    static ByteBuffer encode(long[] values, int rows) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long deltaMin = Long.MAX_VALUE;
+        long deltaMax = Long.MIN_VALUE;
+
+        for (int i = 0; i < rows; i++) {
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+
+            if (i > 0) {
+                long delta = values[i] - values[i - 1];
+                deltaMin = Math.min(deltaMin, delta);
+                deltaMax = Math.max(deltaMax, delta);
+            }
+        }
+
+        int width = bitWidth(max - min);
+        boolean useDelta = rows > 1 && bitWidth(deltaMax - deltaMin) < width;
+
+        if (useDelta) {
+            width = bitWidth(deltaMax - deltaMin);
+            min = deltaMin;
+        }
+
+        int packed = useDelta ? rows - 1 : rows;
+        int words = (int) (((long) packed * width + 63) / 64);
+        long[] bits = new long[words];
+
+        for (int i = 0; i < packed && width > 0; i++) {
+            long value = useDelta ? values[i + 1] - values[i] - min : values[i] - min;
+            long position = (long) i * width;
+            int word = (int) (position >>> 6);
+            int offset = (int) (position & 63);
+
+            bits[word] |= value << offset;
+            if (offset + width > 64) {
+                bits[word + 1] |= value >>> (64 - offset);
+            }
+        }
+
+        ByteBuffer column = ByteBuffer.allocate(COLUMN_HEADER_BYTES + 8 * words);
+        column.put((byte) (useDelta ? 1 : 0)).put((byte) width).putLong(values[0]).putLong(min);
+        for (long word : bits) column.putLong(word);
+        column.flip();
+
+        return column;
+    }
+
+    static long[] decode(ByteBuffer column, int rows) {
+        boolean useDelta = column.get() == 1;
+        int width = column.get();
+        long first = column.getLong();
+        long min = column.getLong();
+        long mask = (width == 64) ? -1L : (1L << width) - 1;
+
+        long[] values = new long[rows];
+        int packed = useDelta ? rows - 1 : rows;
+        int base = column.position();
+
+        if (useDelta) values[0] = first;
+
+        for (int i = 0; i < packed; i++) {
+            long value = 0;
+
+            if (width > 0) {
+                long position = (long) i * width;
+                int word = (int) (position >>> 6);
+                int offset = (int) (position & 63);
+
+                value = column.getLong(base + 8 * word) >>> offset;
+                if (offset + width > 64) {
+                    value |= column.getLong(base + 8 * (word + 1)) << (64 - offset);
+                }
+                value &= mask;
+            }
+
+            if (useDelta) {
+                values[i + 1] = values[i] + value + min;
+            }
+            else {
+                values[i] = value + min;
+            }
+        }
+
+        return values;
+    }
+
+    private static int bitWidth(long range) {
+        return 64 - Long.numberOfLeadingZeros(range);
+    }
+
+    /**
+     * Fills or queries a results file
+     *
+     * > java ResultStore write [file] [games] [first seed]
+     * > java ResultStore query [file]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java ResultStore write <file> [games] [first seed] | query <file>");
+            return;
+        }
+
+        Path path = Paths.get(args[1]);
+        long start = System.nanoTime();
+
+        if (args[0].equals("write")) {
+            long games = (args.length > 2) ? Long.parseLong(args[2]) : 1_000_000;
+            long seed = (args.length > 3) ? Long.parseLong(args[3]) : 0;
+
+            try (Writer writer = new Writer(path)) {
+                for (long done = 0; done < games; ) {
+                    long[] seeds = new long[(int) Math.min(BLOCK_ROWS, games - done)];
+                    for (int g = 0; g < seeds.length; g++) seeds[g] = seed++;
+
+                    BatchEngine engine = new BatchEngine(seeds);
+                    engine.run();
+                    for (int g = 0; g < seeds.length; g++) writer.append(engine.result(g));
+
+                    done += seeds.length;
+                }
+            }
+
+            System.out.printf("Wrote %d games in %.3f s%n", games, (System.nanoTime() - start) / 1e9);
+        }
+        else {
+            try (Reader reader = new Reader(path)) {
+                long[] statuses = reader.countByStatus();
+
+                System.out.println("Games .......... " + reader.rows());
+                for (Game.Status status : Game.Status.values()) {
+                    String label = status + " " + ".".repeat(15 - status.toString().length()) + " ";
+                    System.out.println(label + statuses[status.ordinal()]);
+                }
+                System.out.printf("Average turns .. %.3f%n", reader.average(Column.TURNS));
+                System.out.printf("Average draws .. %.3f%n", reader.average(Column.DRAWS));
+                System.out.printf("Queried in %.3f s%n", (System.nanoTime() - start) / 1e9);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.Collections;
 import java.util.ArrayList;
+import java.util.Random;
 
 public class Rules {
 
@@ -15,6 +16,11 @@ public class Rules {
      */
     public static final int NUMBER_OF_DECKS = 1;
 
+    /**
+     * Identifies the rules above and below in recorded results; bump it whenever a rule changes
+     */
+    public static final int RULE_SET = 2;
+
     /**
      * Numeric values assigned to each card rank
      */
@@ -46,16 +52,54 @@ public class Rules {
      * @return Returns either the Player player object or Computer player object
      */
     public static Player randomPlayer(Player player, Player player2) {
+        return randomPlayer(player, player2, new Random());
+    }
+
+    /**
+     * Select either the player or computer to go first using the given source of randomness
+     *
+     * @param player Player
+     * @param player2 Player
+     * @param rand Random used for the draw
+     * @return Returns either the Player player object or Computer player object
+     */
+    public static Player randomPlayer(Player player, Player player2, Random rand) {
         ArrayList<Player> players = new ArrayList<>(2);
 
         players.add(player);
         players.add(player2);
 
-        Collections.shuffle(players);
+        Collections.shuffle(players, rand);
 
         return players.get(0);
     }
 
+    /**
+     * Returns the points a card is worth when it is left in a hand at the end of the game
+     *
+     * @param card Card on hand
+     * @return Point value from CARD_VALUES
+     */
+    public static int cardPoints(Card card) {
+        return CARD_VALUES.get(card.getValue());
+    }
+
+    /**
+     * Returns the points of all the cards left in a hand
+     *
+     * @param player Player (and remaining cards on hand)
+     * @return Sum of the point values
+     */
+    public static int handPoints(Player player) {
+        int points = 0;
+
+        for (Card card : player.getHand()) {
+            points += cardPoints(card);
+        }
+
+        return points;
+    }
+
     /**
      * Compare the card layed down to the up card; validate that it's possible
      *
@@ -89,7 +133,7 @@ public class Rules {
 
     /**
      * Compare the points of the player's remaining cards to the points of the computer's remaining cards to determine
-     * who won
+     * who won; the lower total wins
      *
      * @param player Player (and remaining cards on hand)
      * @param player2 Computer Player (and remaining cards on hand)
@@ -97,24 +141,15 @@ public class Rules {
      */
     public static Game.Status determineWinner(Player player, Player player2) {
 
-        int playerPoints = 0;
-        int player2Points = 0;
-
-        // Cycle through player's hand and calculate points
-        for (Card card : player.getHand()) {
-            playerPoints += CARD_VALUES.get(card.getValue());
-        }
-
-        // Cycle through computer's hand and calculate points
-        for (Card card : player2.getHand()) {
-            player2Points += CARD_VALUES.get(card.getValue());
-        }
+        int playerPoints = handPoints(player);
+        int player2Points = handPoints(player2);
 
+        // Fewer points left on hand wins
         Game.Status status;
-        if (playerPoints > player2Points) {
+        if (playerPoints < player2Points) {
             status = Game.Status.WON;
         }
-        else if (playerPoints < player2Points) {
+        else if (playerPoints > player2Points) {
             status = Game.Status.LOST;
         }
         else {
@@ -0,0 +1,107 @@
+import java.util.ArrayList;
+import java.util.Random;
+
+public class Simulation {
+
+    /**
+     * Plays one computer-vs-computer game with the same deal, turn order and end-of-game rules as Game.main(). Every
+     * random choice is taken from a single Random, so a seed always plays out the same way.
+     *
+     * @param seed Seed for the deck shuffle, the first player and the up card
+     * @return How the game went
+     */
+    public static GameResult play(long seed) {
+        Random rand = new Random(seed);
+
+        Player you = new Player("player");
+        Player player1 = new Player("player1");
+
+        // Create a deck of 52 unique, shuffled cards
+        ArrayList<Card> deck = Card.createDeck(rand);
+
+        // Randomly select who gets dealt to first
+        Player firstCardPlayer = Rules.randomPlayer(you, player1, rand);
+        Player secondCardPlayer = (firstCardPlayer == you) ? player1 : you;
+
+        // Deal cards
+        for (int c = 0; c < Rules.CARDS_TO_DEAL; c++) {
+            firstCardPlayer.takeCardFromTopOfDeck(deck);
+            secondCardPlayer.takeCardFromTopOfDeck(deck);
+        }
+
+        Card topCard = drawUpCard(deck, rand);
+        String newSuit = "";
+
+        Player nextUp = secondCardPlayer;
+        Game.Status gameStatus = Game.Status.CONTINUE;
+        int turns = 0;
+        int draws = 0;
+
+        while (gameStatus == Game.Status.CONTINUE) {
+            boolean skipped = false;
+
+            // If you cannot play a card, you have to take one from the top
+            while (!nextUp.canPlayCardThisTopCard(newSuit, topCard)) {
+                if (deck.size() != 0) {
+                    nextUp.takeCardFromTopOfDeck(deck);
+                    draws++;
+                }
+                else {
+                    skipped = true;
+                    break;
+                }
+            }
+
+            if (!skipped) {
+                topCard = nextUp.computerAi(newSuit, topCard);
+                nextUp.getHand().remove(topCard);
+
+                // Playing a wild card allows the player to select a new suit
+                newSuit = (topCard.getValue().equals("8") && nextUp.numberOfCardsInHand() != 0)
+                        ? nextUp.computerSelectNewSuit()
+                        : "";
+            }
+
+            turns++;
+
+            // See if there is a winner
+            if (you.numberOfCardsInHand() == 0) {
+                gameStatus = Game.Status.WON;
+            }
+            else if (player1.numberOfCardsInHand() == 0) {
+                gameStatus = Game.Status.LOST;
+            }
+            else if (deck.size() == 0) {
+                gameStatus = Rules.determineWinner(you, player1);
+            }
+            else {
+                nextUp = (nextUp == you) ? player1 : you;
+            }
+        }
+
+        return new GameResult(seed, Rules.RULE_SET, (firstCardPlayer == you) ? 0 : 1, turns, draws,
+                Rules.handPoints(you), Rules.handPoints(player1), gameStatus);
+    }
+
+    /**
+     * Turns over the up card. An "8" cannot start the game, so it is put back in the deck somewhere at random.
+     *
+     * @param deck Active card deck
+     * @param rand Random used to place a returned "8"
+     * @return The up card
+     */
+    static Card drawUpCard(ArrayList<Card> deck, Random rand) {
+        Card topCard;
+
+        do {
+            topCard = deck.remove(0);
+
+            if (topCard.getValue().equals("8")) {
+                deck.add(rand.nextInt(deck.size()), topCard);
+            }
+        }
+        while (topCard.getValue().equals("8"));
+
+        return topCard;
+    }
+}
@@ -0,0 +1,209 @@
+/**
+ * Suits are interchangeable in Crazy Eights, so renaming them (hearts become spades, spades become clubs, ...) gives a
+ * game that plays out exactly the same way. Up to 24 states are therefore one position. This class picks one
+ * representative of each such class, so simulation deduplication, transposition tables and decision caches can
+ * share one entry between all of them.
+ *
+ * The representative is found without trying all 24 renamings. Each suit gets a key built from what sets it apart:
+ * whether it is the declared suit, whether it is the top card's suit, which of its cards each player holds, and where
+ * its first card sits in the deck. Keys move with the suit when suits are renamed, so sorting the suits by key gives
+ * the same order for every state of a class. Two suits can only tie if neither is in the deck and nothing else tells
+ * them apart, and then swapping them changes nothing.
+ *
+ * A player whose choices break ties by card index (as Player.computerAi() does) may still play two equivalent states
+ * differently; the game itself cannot tell them apart.
+ */
+public final class SuitSymmetry {
+
+    private SuitSymmetry() {}
+
+    /**
+     * @param state Any state
+     * @return suitMap[s] is the suit index suit s becomes in the canonical state
+     */
+    public static int[] canonicalSuitMap(GameState state) {
+        int packed = packedSuitMap(state);
+        int[] suitMap = new int[CardBits.SUITS];
+
+        for (int s = 0; s < CardBits.SUITS; s++) {
+            suitMap[s] = (packed >>> (2 * s)) & 3;
+        }
+
+        return suitMap;
+    }
+
+    /**
+     * @param state Any state
+     * @return The representative of its class; equal to canonicalize() of any relabelling of the state
+     */
+    public static GameState canonicalize(GameState state) {
+        return state.withSuitsRelabelled(canonicalSuitMap(state));
+    }
+
+    /**
+     * @param a A state
+     * @param b Another state
+     * @return Whether one is the other with its suits renamed
+     */
+    public static boolean equivalent(GameState a, GameState b) {
+        return canonicalize(a).equals(canonicalize(b));
+    }
+
+    /**
+     * A 64-bit hash of the canonical state, computed without building it. Equivalent states hash alike; it covers
+     * everything GameState.equals() compares, so it can key a transposition table directly.
+     *
+     * @param state Any state
+     * @return Hash shared by every relabelling of the state
+     */
+    public static long canonicalHash(GameState state) {
+        int packed = packedSuitMap(state);
+
+        int newSuit = state.getNewSuit();
+        int top = state.getTopCard();
+        long header = relabel(top, packed)
+                | (long) ((newSuit < 0) ? 0 : ((packed >>> (2 * newSuit)) & 3) + 1) << 6
+                | (long) state.getNextUp() << 9
+                | (long) state.getStatus().ordinal() << 10
+                | (long) state.cardsLeft() << 12;
+
+        long hash = mix(relabel(state.getHand(0), packed) ^ 0x9E3779B97F4A7C15L);
+        hash = mix(hash ^ relabel(state.getHand(1), packed));
+        hash = mix(hash ^ header);
+
+        // Ten 6-bit cards to a word
+        long word = 0;
+        int left = state.cardsLeft();
+        for (int c = 0; c < left; c++) {
+            word = (word << 6) | relabel(state.getDeckCard(c), packed);
+
+            if (c % 10 == 9 || c == left - 1) {
+                hash = mix(hash ^ word);
+                word = 0;
+            }
+        }
+
+        return hash;
+    }
+
+    /**
+     * Sorts the suits by key; the result holds each suit's new index in two bits, suit 0 lowest
+     */
+    private static int packedSuitMap(GameState state) {
+        int[] firstInDeck = {127, 127, 127, 127};
+        int found = 0;
+
+        for (int c = 0, left = state.cardsLeft(); c < left && found < CardBits.SUITS; c++) {
+            int suit = CardBits.suit(state.getDeckCard(c));
+            if (firstInDeck[suit] == 127) {
+                firstInDeck[suit] = c;
+                found++;
+            }
+        }
+
+        long k0 = key(state, 0, firstInDeck[0]);
+        long k1 = key(state, 1, firstInDeck[1]);
+        long k2 = key(state, 2, firstInDeck[2]);
+        long k3 = key(state, 3, firstInDeck[3]);
+
+        // Sorting network for four keys
+        long t;
+        if (k0 > k1) { t = k0; k0 = k1; k1 = t; }
+        if (k2 > k3) { t = k2; k2 = k3; k3 = t; }
+        if (k0 > k2) { t = k0; k0 = k2; k2 = t; }
+        if (k1 > k3) { t = k1; k1 = k3; k3 = t; }
+        if (k1 > k2) { t = k1; k1 = k2; k2 = t; }
+
+        // The low two bits of each key are the suit it belongs to
+        return (0 << (2 * (int) (k0 & 3))) | (1 << (2 * (int) (k1 & 3))) | (2 << (2 * (int) (k2 & 3)))
+                | (3 << (2 * (int) (k3 & 3)));
+    }
+
+    private static long key(GameState state, int suit, int firstInDeck) {
+        long suitBits = (1L << CardBits.RANKS) - 1;
+        long player = (state.getHand(0) >>> (suit * CardBits.RANKS)) & suitBits;
+        long player1 = (state.getHand(1) >>> (suit * CardBits.RANKS)) & suitBits;
+
+        long key = (state.getNewSuit() == suit) ? 0 : 1;
+        key = (key << 1) | ((CardBits.suit(state.getTopCard()) == suit) ? 0 : 1);
+        key = (key << CardBits.RANKS) | player;
+        key = (key << CardBits.RANKS) | player1;
+        key = (key << 7) | firstInDeck;
+
+        return (key << 2) | suit;
+    }
+
+    private static int relabel(int card, int packed) {
+        return ((packed >>> (2 * CardBits.suit(card))) & 3) * CardBits.RANKS + CardBits.rank(card);
+    }
+
+    private static long relabel(long cards, int packed) {
+        long renamed = 0;
+
+        for (int s = 0; s < CardBits.SUITS; s++) {
+            renamed |= ((cards >>> (s * CardBits.RANKS)) & ((1L << CardBits.RANKS) - 1))
+                    << (((packed >>> (2 * s)) & 3) * CardBits.RANKS);
+        }
+
+        return renamed;
+    }
+
+    /**
+     * SplitMix64's finalizer
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Checks that all 24 renamings of a run of deals (and of positions later in those games) share one canonical
+     * state and hash, then times the hash
+     *
+     * > java SuitSymmetry [games]
+     */
+    public static void main(String[] args) {
+        int games = (args.length > 0) ? Integer.parseInt(args[0]) : 2_000;
+        int[][] renamings = permutations();
+        long checked = 0;
+        long mismatches = 0;
+
+        for (long seed = 0; seed < games; seed++) {
+            for (GameState state = GameState.deal(seed); state.getStatus() == Game.Status.CONTINUE;
+                 state = state.apply(state.computerMove())) {
+                GameState canonical = canonicalize(state);
+                long hash = canonicalHash(state);
+
+                for (int[] renaming : renamings) {
+                    GameState renamed = state.withSuitsRelabelled(renaming);
+                    if (!canonicalize(renamed).equals(canonical) || canonicalHash(renamed) != hash) mismatches++;
+                    checked++;
+                }
+            }
+        }
+
+        System.out.println(checked + " renamed states checked, " + mismatches + " mismatches");
+
+        GameState deal = GameState.deal(0);
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < 5_000_000; i++) {
+            sink += canonicalHash(deal);
+        }
+        System.out.printf("canonicalHash: %.1f ns per deal (%d)%n", (System.nanoTime() - start) / 5e6, sink & 1);
+    }
+
+    private static int[][] permutations() {
+        int[][] all = new int[24][];
+        int n = 0;
+
+        for (int a = 0; a < 4; a++)
+            for (int b = 0; b < 4; b++)
+                for (int c = 0; c < 4; c++)
+                    if (a != b && a != c && b != c) all[n++] = new int[]{a, b, c, 6 - a - b - c};
+
+        return all;
+    }
+}
@@ -0,0 +1,376 @@
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Fans a table's turn events out to any number of spectators without ever making the game wait for them.
+ *
+ * One thread, the game, publishes into a ring of preallocated slots; every field of every slot lives in a primitive
+ * array, so publishing allocates nothing. The bus does not know who is watching: each Spectator keeps its own
+ * position and reads at its own pace, so publishing costs the same with one spectator or a thousand. A spectator that
+ * falls more than a ring's length behind is lagged forward to the oldest event still held and told how many it
+ * missed.
+ *
+ * Each slot carries a stamp, the sequence number of the event in it. The writer clears the stamp before it overwrites
+ * a slot and sets it once the slot is complete, and a reader only keeps what it copied if the stamp was the sequence
+ * it wanted both before and after copying.
+ *
+ * Turns taken back at the table are not erased from the ring. An UNDO or REDO event says which turn the game is at
+ * now, and every event after it replaces whatever the ring held for the turns that follow.
+ */
+public class TurnEventBus {
+
+    /**
+     * What happened on a turn; UNDO and REDO move the game to another turn it has already been at
+     */
+    public enum Kind {PLAY, DRAW, SKIP, GAME_OVER, UNDO, REDO}
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final Game.Status[] STATUSES = Game.Status.values();
+
+    private final int mask;
+    private final AtomicLongArray stamps;
+    private final byte[] kinds;
+    private final byte[] players;
+    private final byte[] cards;
+    private final byte[] suits;
+    private final byte[] statuses;
+    private final short[] cardsLeft;
+    private final int[] turns;
+
+    /**
+     * Sequence number of the last event published; only the game thread writes it
+     */
+    private final AtomicLong cursor = new AtomicLong(-1);
+
+    /**
+     * Class constructor
+     *
+     * @param capacity Events held for spectators; rounded up to a power of two
+     */
+    public TurnEventBus(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+
+        this.mask = size - 1;
+        this.stamps = new AtomicLongArray(size);
+        this.kinds = new byte[size];
+        this.players = new byte[size];
+        this.cards = new byte[size];
+        this.suits = new byte[size];
+        this.statuses = new byte[size];
+        this.cardsLeft = new short[size];
+        this.turns = new int[size];
+
+        for (int s = 0; s < size; s++) {
+            stamps.set(s, -1);
+        }
+    }
+
+    /**
+     * Publishes one event. Only ever call this from the game's own thread.
+     *
+     * @param kind What happened
+     * @param player 0 for Player, 1 for Player1; who moved
+     * @param card Card played or drawn, or -1
+     * @param suit Suit declared with an "8", or -1
+     * @param after The state the move led to
+     */
+    public void publish(Kind kind, int player, int card, int suit, GameState after) {
+        long sequence = cursor.get() + 1;
+        int slot = (int) (sequence & mask);
+
+        // Readers must see the slot as invalid before any field of it changes
+        stamps.setOpaque(slot, -1);
+        VarHandle.releaseFence();
+
+        kinds[slot] = (byte) kind.ordinal();
+        players[slot] = (byte) player;
+        cards[slot] = (byte) card;
+        suits[slot] = (byte) suit;
+        statuses[slot] = (byte) after.getStatus().ordinal();
+        cardsLeft[slot] = (short) after.cardsLeft();
+        turns[slot] = after.getTurns() + ((kind == Kind.DRAW) ? 1 : 0);
+
+        stamps.setRelease(slot, sequence);
+        cursor.setRelease(sequence);
+    }
+
+    /**
+     * Publishes the move that led from one state to the next, plus GAME_OVER if it ended the game
+     *
+     * @param before State before the move
+     * @param move GameState move that was applied
+     * @param after State after the move
+     */
+    public void publish(GameState before, int move, GameState after) {
+        int player = before.getNextUp();
+
+        if (move == GameState.DRAW) {
+            publish(Kind.DRAW, player, before.getTopOfDeck(), -1, after);
+        }
+        else if (move == GameState.SKIP) {
+            publish(Kind.SKIP, player, -1, -1, after);
+        }
+        else {
+            publish(Kind.PLAY, player, GameState.moveCard(move), GameState.moveSuit(move), after);
+        }
+
+        if (after.getStatus() != Game.Status.CONTINUE) {
+            publish(Kind.GAME_OVER, player, -1, -1, after);
+        }
+    }
+
+    /**
+     * Publishes an undo or redo, plus GAME_OVER if the game is over at the state it returned to
+     *
+     * @param kind UNDO or REDO
+     * @param restored The state the game is at now
+     */
+    public void publishRestore(Kind kind, GameState restored) {
+        if (kind != Kind.UNDO && kind != Kind.REDO) {
+            throw new IllegalArgumentException("Only UNDO and REDO restore a state.");
+        }
+
+        publish(kind, restored.getNextUp(), -1, -1, restored);
+
+        if (restored.getStatus() != Game.Status.CONTINUE) {
+            publish(Kind.GAME_OVER, restored.getNextUp(), -1, -1, restored);
+        }
+    }
+
+    /**
+     * @return Number of events published so far
+     */
+    public long published() {
+        return cursor.get() + 1;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Starts watching from the next event published
+     *
+     * @return A new spectator; hand it to exactly one thread
+     */
+    public Spectator spectate() {
+        return new Spectator(cursor.get() + 1);
+    }
+
+    /**
+     * One turn event. Spectators fill and reuse a single instance, so copy anything you want to keep.
+     */
+    public static final class TurnEvent {
+
+        private long sequence;
+        private Kind kind;
+        private int player;
+        private int card;
+        private int suit;
+        private int cardsLeft;
+        private int turn;
+        private Game.Status status;
+
+        public long getSequence() { return this.sequence; }
+
+        public Kind getKind() { return this.kind; }
+
+        public int getPlayer() { return this.player; }
+
+        /**
+         * @return Card index played or drawn, or -1
+         */
+        public int getCard() { return this.card; }
+
+        /**
+         * @return Suit index declared with an "8", or -1
+         */
+        public int getSuit() { return this.suit; }
+
+        public int getCardsLeft() { return this.cardsLeft; }
+
+        /**
+         * @return Number of the turn the event happened on, counting from 1; for UNDO and REDO, the last turn still
+         * standing
+         */
+        public int getTurn() { return this.turn; }
+
+        public Game.Status getStatus() { return this.status; }
+
+        public String toString() {
+            String who = (player == 0) ? "Player" : "Player1";
+
+            switch (kind) {
+                case PLAY:
+                    return "Turn " + turn + ": " + who + " plays " + Card.fromIndex(card)
+                            + ((suit >= 0) ? " and calls " + Card.pairTypeWithUnicode(Card.CARD_TYPES[suit]) : "");
+                case DRAW:
+                    return "Turn " + turn + ": " + who + " draws (" + cardsLeft + " left)";
+                case SKIP:
+                    return "Turn " + turn + ": " + who + " is skipped";
+                case UNDO:
+                    return "Undo: back to turn " + turn + ", " + who + " up";
+                case REDO:
+                    return "Redo: forward to turn " + turn + ", " + who + " up";
+                default:
+                    return "Game over: " + status;
+            }
+        }
+    }
+
+    /**
+     * A reader with its own position in the ring
+     */
+    public final class Spectator {
+
+        private final TurnEvent event = new TurnEvent();
+        private long next;
+        private long dropped;
+
+        private Spectator(long next) {
+            this.next = next;
+        }
+
+        /**
+         * Hands the events published since the last poll to the handler, oldest first
+         *
+         * @param handler Called once per event with this spectator's reused TurnEvent
+         * @param max Most events to hand over in this call
+         * @return Events handed over
+         */
+        public int poll(Consumer<TurnEvent> handler, int max) {
+            int handled = 0;
+
+            while (handled < max) {
+                int slot = (int) (next & mask);
+                long stamp = stamps.getAcquire(slot);
+
+                if (stamp != next) {
+                    if (!lapped()) break;
+                    continue;
+                }
+
+                event.sequence = next;
+                event.kind = KINDS[kinds[slot]];
+                event.player = players[slot];
+                event.card = cards[slot];
+                event.suit = suits[slot];
+                event.status = STATUSES[statuses[slot]];
+                event.cardsLeft = cardsLeft[slot];
+                event.turn = turns[slot];
+
+                // The copy only counts if the writer did not start on the slot meanwhile
+                VarHandle.acquireFence();
+                if (stamps.getOpaque(slot) != next) {
+                    lapped();
+                    continue;
+                }
+
+                next++;
+                handled++;
+                handler.accept(event);
+            }
+
+            return handled;
+        }
+
+        /**
+         * Jumps forward past events the ring no longer holds
+         *
+         * @return False if the spectator is simply caught up
+         */
+        private boolean lapped() {
+            long oldest = cursor.get() - mask;
+            if (next >= oldest) return false;
+
+            dropped += oldest - next;
+            next = oldest;
+
+            return true;
+        }
+
+        /**
+         * @return Events this spectator missed because it fell too far behind
+         */
+        public long getDropped() { return this.dropped; }
+
+        /**
+         * @return Events published that this spectator has not read yet
+         */
+        public long getLag() { return cursor.get() + 1 - next; }
+    }
+
+    /**
+     * Plays computer games at full speed with three spectators: a logger keeping up, a replay recorder reading in
+     * batches and a commentator so slow it keeps getting lagged
+     *
+     * > java TurnEventBus [games]
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int games = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+        TurnEventBus bus = new TurnEventBus(4096);
+
+        Spectator logger = bus.spectate();
+        Spectator recorder = bus.spectate();
+        Spectator commentator = bus.spectate();
+        long[] seen = new long[3];
+        String[] lastLine = new String[1];
+
+        Thread[] threads = {
+                new Thread(() -> watch(logger, event -> seen[0]++, 0)),
+                new Thread(() -> watch(recorder, event -> seen[1]++, 0)),
+                new Thread(() -> watch(commentator, event -> {
+                    seen[2]++;
+                    lastLine[0] = event.toString();
+                }, 1))
+        };
+        for (Thread thread : threads) {
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        long start = System.nanoTime();
+        for (long seed = 0; seed < games; seed++) {
+            GameState state = GameState.deal(seed);
+
+            while (state.getStatus() == Game.Status.CONTINUE) {
+                int move = state.computerMove();
+                GameState after = state.apply(move);
+                bus.publish(state, move, after);
+                state = after;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Thread.sleep(100);
+        for (Thread thread : threads) thread.interrupt();
+        for (Thread thread : threads) thread.join();
+
+        System.out.printf("%d games, %d events in %.3f s%n", games, bus.published(), seconds);
+        System.out.println("Logger ......... read " + seen[0] + ", dropped " + logger.getDropped());
+        System.out.println("Recorder ....... read " + seen[1] + ", dropped " + recorder.getDropped());
+        System.out.println("Commentator .... read " + seen[2] + ", dropped " + commentator.getDropped()
+                + ", last said \"" + lastLine[0] + "\"");
+    }
+
+    private static void watch(Spectator spectator, Consumer<TurnEvent> handler, long pauseMillis) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                int read = spectator.poll(handler, 256);
+
+                if (pauseMillis > 0) {
+                    Thread.sleep(pauseMillis);
+                }
+                else if (read == 0) {
+                    Thread.sleep(0, 100_000);
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            // Done watching; read whatever is left
+            spectator.poll(handler, Integer.MAX_VALUE);
+        }
+    }
+}